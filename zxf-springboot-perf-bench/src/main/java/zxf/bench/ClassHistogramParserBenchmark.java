@@ -0,0 +1,41 @@
+package zxf.bench;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import zxf.util.ClassHistogramParser;
+import zxf.util.DiagnosticCommandInvoker;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ClassMonitor 直方图解析：输入为本 JVM 的真实 GC.class_histogram 输出，前缀与 http5 应用一致
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class ClassHistogramParserBenchmark {
+    private static final String[] PREFIXES = {"org.apache.hc.client5", "java.net.Socket", "javax.net", "sun.net",
+            "sun.nio.ch.NioSocketImpl", "java.lang.Thread", "java.lang.String"};
+
+    private String histogram;
+    private ClassHistogramParser parser;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        histogram = DiagnosticCommandInvoker.getClassHistogram(false);
+        parser = new ClassHistogramParser(PREFIXES);
+    }
+
+    @Benchmark
+    public void parse(Blackhole blackhole) {
+        parser.parse(histogram, (className, instances, bytes) -> {
+            blackhole.consume(className);
+            blackhole.consume(instances);
+            blackhole.consume(bytes);
+        });
+    }
+}
@@ -0,0 +1,55 @@
+package zxf.bench;
+
+import org.openjdk.jmh.annotations.*;
+import zxf.monitor.DescriptorMonitor;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 文件描述符枚举：逐条记录的 listOpenFileDescriptors 与流式计数的 scanOpenFileDescriptors（约 1000 个套接字）
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class DescriptorBenchmark {
+    private static final int CONNECTIONS = 500;
+
+    private ServerSocket server;
+    private final List<Socket> sockets = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        server = new ServerSocket(0, CONNECTIONS);
+        for (int i = 0; i < CONNECTIONS; i++) {
+            sockets.add(new Socket("localhost", server.getLocalPort()));
+            sockets.add(server.accept());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        for (Socket socket : sockets) {
+            socket.close();
+        }
+        server.close();
+    }
+
+    @Benchmark
+    public List<DescriptorMonitor.FileDescriptorInfo> listOpenFileDescriptors() {
+        return DescriptorMonitor.listOpenFileDescriptors();
+    }
+
+    @Benchmark
+    public DescriptorMonitor.DescriptorSummary scanOpenFileDescriptors() {
+        return DescriptorMonitor.scanOpenFileDescriptors();
+    }
+}
@@ -0,0 +1,44 @@
+package zxf.bench;
+
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.openjdk.jmh.annotations.*;
+import zxf.perf.app.http5.HttpClientMonitor;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * http5 应用的 HttpClientMonitor.monitor（每请求新建客户端后调用）：按类缓存的 closeables 字段查找、遍历与注册。
+ * 监控器按应用的配置启动，同一客户端反复注册，超过详细跟踪上限后即为泄漏场景下的稳态路径（只计数与抽样）
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class HttpClientMonitorBenchmark {
+    private HttpClientMonitor monitor;
+    private CloseableHttpClient client;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        monitor = new HttpClientMonitor("http://localhost:8089", Duration.ofMinutes(10), false);
+        // 与 WebClientFactory 中的用法一致：带空闲连接清理，closeables 中包含清理线程与连接管理器
+        client = HttpClients.custom().evictExpiredConnections().build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        client.close();
+        monitor.shutdown();
+    }
+
+    @Benchmark
+    public void monitor() {
+        monitor.monitor(client);
+    }
+}
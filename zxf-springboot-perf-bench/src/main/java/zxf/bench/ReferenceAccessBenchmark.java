@@ -0,0 +1,56 @@
+package zxf.bench;
+
+import org.openjdk.jmh.annotations.*;
+import zxf.monitor.object.MonitorListener;
+import zxf.monitor.object.ObjectMonitor;
+import zxf.monitor.object.StackCaptureMode;
+
+import java.io.Closeable;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 按 id 记录访问与更新生命周期阶段（多线程随机命中 10k 个存活对象）
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class ReferenceAccessBenchmark {
+    private static final int OBJECTS = 10_000;
+
+    private ObjectMonitor<Closeable> monitor;
+    private Closeable[] objects;
+    private long[] ids;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        monitor = new ObjectMonitor<>(Closeable.class);
+        monitor.startup(config -> config.setStackCaptureMode(StackCaptureMode.NONE), new MonitorListener<>() {
+        });
+        objects = new Closeable[OBJECTS];
+        ids = new long[OBJECTS];
+        for (int i = 0; i < OBJECTS; i++) {
+            objects[i] = new RegisterBenchmark.Connection();
+            ids[i] = monitor.register(objects[i], null).getId();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        monitor.shutdown();
+    }
+
+    @Benchmark
+    public void recordAccess() {
+        monitor.recordAccess(ids[ThreadLocalRandom.current().nextInt(OBJECTS)]);
+    }
+
+    @Benchmark
+    public void updateLifecyclePhase() {
+        monitor.updateLifecyclePhase(ids[ThreadLocalRandom.current().nextInt(OBJECTS)], "in-use");
+    }
+}
@@ -0,0 +1,57 @@
+package zxf.bench;
+
+import org.openjdk.jol.info.ClassLayout;
+import zxf.monitor.object.MonitorListener;
+import zxf.monitor.object.ObjectMonitor;
+import zxf.monitor.object.StackCaptureMode;
+import zxf.monitor.object.TReference;
+
+import java.io.Closeable;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+
+/**
+ * 跟踪对象的内存占用：打印 TReference 的字段布局，并测量跟踪 N 个（默认 10 万）存活对象时监控器的保留堆增量
+ * <pre>
+ * java -cp target/benchmarks.jar zxf.bench.ReferenceFootprint [count]
+ * </pre>
+ */
+public class ReferenceFootprint {
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+
+        System.out.println(ClassLayout.parseClass(TReference.class).toPrintable());
+
+        for (StackCaptureMode mode : StackCaptureMode.values()) {
+            Closeable[] objects = new Closeable[count];
+            for (int i = 0; i < count; i++) {
+                objects[i] = new RegisterBenchmark.Connection();
+            }
+
+            long before = usedHeapAfterGc();
+            ObjectMonitor<Closeable> monitor = new ObjectMonitor<>(Closeable.class);
+            monitor.startup(config -> {
+                config.setStackCaptureMode(mode);
+                config.setMaxTrackedObjects(0);
+            }, new MonitorListener<>() {
+            });
+            for (Closeable object : objects) {
+                monitor.register(object, null);
+            }
+            long after = usedHeapAfterGc();
+
+            System.out.printf("%-8s tracked=%,d retained=%,d bytes (%.1f bytes/object)%n", mode,
+                    monitor.getActiveCount(), after - before, (double) (after - before) / count);
+            monitor.shutdown();
+            Reference.reachabilityFence(objects);
+        }
+    }
+
+    private static long usedHeapAfterGc() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(200);
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
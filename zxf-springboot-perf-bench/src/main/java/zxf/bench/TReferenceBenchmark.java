@@ -0,0 +1,49 @@
+package zxf.bench;
+
+import org.openjdk.jmh.annotations.*;
+import zxf.monitor.object.MonitorListener;
+import zxf.monitor.object.ObjectMonitor;
+import zxf.monitor.object.TReference;
+
+import java.io.Closeable;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TReference 构造开销（不经过注册表），对比有无附加元数据
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class TReferenceBenchmark {
+    private static final Map<String, Object> METADATA = Map.of("route", "localhost:8089");
+
+    private ObjectMonitor<Closeable> owner;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        owner = new ObjectMonitor<>(Closeable.class);
+        owner.startup(config -> {
+        }, new MonitorListener<>() {
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        owner.shutdown();
+    }
+
+    @Benchmark
+    public TReference<Closeable> construct() {
+        return new TReference<>(new RegisterBenchmark.Connection(), owner, 1L, 0, null);
+    }
+
+    @Benchmark
+    public TReference<Closeable> constructWithMetadata() {
+        return new TReference<>(new RegisterBenchmark.Connection(), owner, 1L, 0, METADATA);
+    }
+}
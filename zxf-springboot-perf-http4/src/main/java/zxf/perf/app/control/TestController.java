@@ -6,6 +6,7 @@ import org.apache.http.client.methods.HttpGet;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.util.EntityUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import zxf.perf.app.service.WebClientFactory;
@@ -17,6 +18,8 @@ import java.io.IOException;
 public class TestController {
     @Autowired
     private WebClientFactory webClientFactory;
+    @Value("${perf.mock.url:http://localhost:8089}")
+    private String mockUrl;
 
     private static final int MAX_DELAY_SECONDS = 30;
 
@@ -38,7 +41,7 @@ public class TestController {
 
     private String testHttpClient(CloseableHttpClient httpClient, Integer delay, Boolean close) throws IOException {
         try {
-            String requestUrl = delay != null ? "http://localhost:8089/binary?delay=" + delay : "http://localhost:8089/binary";
+            String requestUrl = delay != null ? mockUrl + "/binary?delay=" + delay : mockUrl + "/binary";
             CloseableHttpResponse response = httpClient.execute(new HttpGet(requestUrl));
             String result = response.getStatusLine().toString();
             if (close) {
@@ -3,14 +3,22 @@ package zxf.perf.app.http4;
 import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.http.client.HttpClient;
+import org.apache.http.client.utils.URIUtils;
+import org.apache.http.conn.UnsupportedSchemeException;
+import org.apache.http.impl.conn.DefaultSchemePortResolver;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import zxf.monitor.*;
+import zxf.monitor.metrics.MonitorMetrics;
 import zxf.monitor.object.MonitorListener;
 import zxf.monitor.object.ObjectMonitor;
+import zxf.monitor.object.SiteLeakReport;
+import zxf.monitor.object.StackCaptureMode;
 import zxf.monitor.object.TReference;
 
 import java.io.Closeable;
 import java.lang.reflect.Field;
+import java.net.URI;
 import java.time.Duration;
 import java.util.List;
 import java.util.Set;
@@ -24,10 +32,18 @@ public class HttpClientMonitor {
     private final ThreadMonitor threadMonitor;
     private final ClassMonitor classMonitor;
     private final DescriptorMonitor descriptorMonitor;
+    private final TcpStateMonitor tcpStateMonitor;
+    private final PinningMonitor pinningMonitor;
+    private final MonitorMetrics monitorMetrics;
     private final Set<Class<?>> closableClasses = ConcurrentHashMap.newKeySet();
     private static final ConcurrentMap<Class<?>, Field> CLOSEABLES_FIELD_CACHE = new ConcurrentHashMap<>();
 
-    public HttpClientMonitor() {
+    /**
+     * @param mockUrl        mock 服务地址，TCP 状态按其端口采样
+     * @param virtualThreads 虚拟线程模式下额外监控载体线程固定
+     */
+    public HttpClientMonitor(@Value("${perf.mock.url:http://localhost:8089}") String mockUrl,
+                             @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
         closeableMonitor = new ObjectMonitor<>(Closeable.class);
 
         closeableMonitor.startup(config -> {
@@ -36,22 +52,33 @@ public class HttpClientMonitor {
             config.setAutoGcBeforeCheck(true);
             config.setLeakSuspectThreshold(5000);
             config.setMaxObjectAge(Duration.ofMinutes(10));
+            // 压测热路径只抽样采集栈顶若干帧，避免每次注册都抓取完整堆栈
+            config.setStackCaptureMode(StackCaptureMode.SAMPLED);
+            config.setStackSampleRate(100);
+            config.setStackDepth(12);
+            config.setSiteIgnoredPrefixes(List.of(HttpClientMonitor.class.getName()));
+            // 泄漏场景下连接数无上限增长，监控器自身只详细跟踪前 5 万个，其余仅计数与抽样
+            config.setMaxTrackedObjects(50_000);
         }, new MonitorListener<Closeable>() {
             @Override
-            public void onLeakSuspected(TReference<Closeable> ref, String reason) {
-                log.warn("连接泄漏嫌疑: {}, 原因: {}", ref.getSummary(), reason);
+            public void onLeakSitesSuspected(List<SiteLeakReport> reports) {
+                for (SiteLeakReport report : reports) {
+                    log.warn("连接泄漏嫌疑: {}, 原因: {}", report, report.reason());
+                }
             }
 
             @Override
-            public void onLeakConfirmed(TReference<Closeable> ref, String reason) {
-                log.error("确认连接泄漏: {}, 原因: {}", ref.getSummary(), reason);
+            public void onLeakSitesConfirmed(List<SiteLeakReport> reports) {
+                for (SiteLeakReport report : reports) {
+                    log.error("确认连接泄漏: {}, 原因: {}", report, report.reason());
+                }
             }
         });
 
         threadMonitor = new ThreadMonitor(Duration.ofSeconds(90), new String[]{"org.apache.http", "Connection evictor"}, 1000);
         threadMonitor.start();
 
-        classMonitor = new ClassMonitor(Duration.ofSeconds(90),
+        classMonitor = ClassMonitor.ofGrowth(Duration.ofSeconds(90),
                 new String[]{
                         "org.apache.http",           // HttpClient 核心
                         "org.apache.http.impl.conn", // 连接管理
@@ -69,6 +96,26 @@ public class HttpClientMonitor {
 
         descriptorMonitor = new DescriptorMonitor(Duration.ofSeconds(90), 5000, true);
         descriptorMonitor.start();
+
+        // 按 10 秒采样到 mock（默认 8089）的 TCP 状态，观察 TIME_WAIT/CLOSE_WAIT 堆积与临时端口占用
+        tcpStateMonitor = new TcpStateMonitor(Duration.ofSeconds(10), new int[]{remotePort(mockUrl)});
+        tcpStateMonitor.start();
+
+        // 请求与阻塞出站调用跑在虚拟线程上时，synchronized 内阻塞会占住载体线程
+        pinningMonitor = virtualThreads ? new PinningMonitor(Duration.ofSeconds(30)) : null;
+        if (pinningMonitor != null) {
+            pinningMonitor.start();
+        }
+
+        // 以 JMX 暴露各监控器计数（zxf.monitor:application=http4,...），便于与压测吞吐对照
+        monitorMetrics = new MonitorMetrics("http4")
+                .objectMonitor(closeableMonitor)
+                .threadMonitor(threadMonitor)
+                .classMonitor(classMonitor)
+                .descriptorMonitor(descriptorMonitor)
+                .tcpStateMonitor(tcpStateMonitor)
+                .pinningMonitor(pinningMonitor);
+        monitorMetrics.registerMBeans();
     }
 
     public void monitor(HttpClient httpClient) {
@@ -102,6 +149,17 @@ public class HttpClientMonitor {
         }
     }
 
+    /**
+     * mock 地址未写端口（如 http://mock/）时取协议默认端口
+     */
+    private static int remotePort(String mockUrl) {
+        try {
+            return DefaultSchemePortResolver.INSTANCE.resolve(URIUtils.extractHost(URI.create(mockUrl)));
+        } catch (UnsupportedSchemeException e) {
+            throw new IllegalArgumentException("Unsupported scheme in perf.mock.url: " + mockUrl, e);
+        }
+    }
+
     private static Field lookupCloseablesField(Class<?> clientClass) {
         try {
             Field field = clientClass.getDeclaredField("closeables");
@@ -114,9 +172,14 @@ public class HttpClientMonitor {
 
     @PreDestroy
     public void shutdown() {
+        monitorMetrics.unregisterMBeans();
         closeableMonitor.shutdown();
         threadMonitor.stop();
         classMonitor.stop();
         descriptorMonitor.stop();
+        tcpStateMonitor.stop();
+        if (pinningMonitor != null) {
+            pinningMonitor.stop();
+        }
     }
 }
\ No newline at end of file
@@ -4,12 +4,18 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import zxf.util.SocketLoggingUtil;
 
+import java.util.Map;
+
 @SpringBootApplication
 public class PerfApplication {
+    public static final String CONFIG_NAME = "http5";
 
     public static void main(String[] args) {
 //        SocketLoggingUtil.enableAllNetworkLogging();
 //        SocketLoggingUtil.enableSocketDebug();
-        SpringApplication.run(PerfApplication.class, args);
+        SpringApplication application = new SpringApplication(PerfApplication.class);
+        // 配置文件为 http5.yml 而非 application.yml：实验运行器与 mock 同在一个类路径时各自读取自己的配置
+        application.setDefaultProperties(Map.of("spring.config.name", CONFIG_NAME));
+        application.run(args);
     }
 }
@@ -0,0 +1,110 @@
+package zxf.perf.app.control;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.io.CloseMode;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import zxf.perf.app.service.AsyncWebClientFactory;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 非阻塞出站调用：返回 CompletableFuture/Mono，Servlet 异步处理，等待 mock 期间不占用 Tomcat 工作线程。
+ * delay 只传给 mock（不在本应用 sleep），用于观察大量请求同时等待时的吞吐与线程数
+ */
+@Slf4j
+@RestController
+public class AsyncTestController {
+    @Autowired
+    private AsyncWebClientFactory asyncWebClientFactory;
+    @Value("${perf.mock.url:http://localhost:8089}")
+    private String mockUrl;
+
+    private static final int MAX_DELAY_SECONDS = 30;
+
+    // NOTE: the /new variants intentionally create a client per request; with close=false (and always for WebClient)
+    // the client and its I/O reactor threads are never released, to observe leak behavior under load.
+
+    @GetMapping("/async/httpclient/new")
+    public CompletableFuture<ResponseEntity<String>> newHttpAsyncClient(@RequestParam(required = false) Integer delay,
+                                                                        @RequestParam(defaultValue = "true") Boolean close,
+                                                                        @RequestParam(defaultValue = "false") Boolean h2) {
+        if (delay != null && (delay < 0 || delay > MAX_DELAY_SECONDS)) {
+            return CompletableFuture.completedFuture(badDelay());
+        }
+        CloseableHttpAsyncClient httpClient = asyncWebClientFactory.newHttpAsyncClient(h2);
+        CompletableFuture<ResponseEntity<String>> result = testHttpAsyncClient(httpClient, delay);
+        if (close) {
+            // 不能在 I/O reactor 线程上关闭客户端自身（会等待自己退出），切换到公共线程池关闭
+            result = result.whenCompleteAsync((response, error) -> httpClient.close(CloseMode.GRACEFUL));
+        }
+        return result;
+    }
+
+    @GetMapping("/async/httpclient/shared")
+    public CompletableFuture<ResponseEntity<String>> sharedHttpAsyncClient(@RequestParam(required = false) Integer delay,
+                                                                           @RequestParam(defaultValue = "false") Boolean h2) {
+        if (delay != null && (delay < 0 || delay > MAX_DELAY_SECONDS)) {
+            return CompletableFuture.completedFuture(badDelay());
+        }
+        return testHttpAsyncClient(asyncWebClientFactory.sharedHttpAsyncClient(h2), delay);
+    }
+
+    @GetMapping("/webclient/new")
+    public Mono<ResponseEntity<String>> newWebClient(@RequestParam(required = false) Integer delay) {
+        if (delay != null && (delay < 0 || delay > MAX_DELAY_SECONDS)) {
+            return Mono.just(badDelay());
+        }
+        return testWebClient(asyncWebClientFactory.newWebClient(), delay);
+    }
+
+    @GetMapping("/webclient/shared")
+    public Mono<ResponseEntity<String>> sharedWebClient(@RequestParam(required = false) Integer delay) {
+        if (delay != null && (delay < 0 || delay > MAX_DELAY_SECONDS)) {
+            return Mono.just(badDelay());
+        }
+        return testWebClient(asyncWebClientFactory.sharedWebClient(), delay);
+    }
+
+
+    private CompletableFuture<ResponseEntity<String>> testHttpAsyncClient(CloseableHttpAsyncClient httpClient, Integer delay) {
+        String requestUrl = delay != null ? mockUrl + "/binary?delay=" + delay : mockUrl + "/binary";
+        CompletableFuture<ResponseEntity<String>> result = new CompletableFuture<>();
+        httpClient.execute(SimpleRequestBuilder.get(requestUrl).build(), new FutureCallback<>() {
+            @Override
+            public void completed(SimpleHttpResponse response) {
+                result.complete(ResponseEntity.ok(String.valueOf(response.getCode())));
+            }
+
+            @Override
+            public void failed(Exception ex) {
+                result.completeExceptionally(ex);
+            }
+
+            @Override
+            public void cancelled() {
+                result.cancel(false);
+            }
+        });
+        return result;
+    }
+
+    private Mono<ResponseEntity<String>> testWebClient(WebClient webClient, Integer delay) {
+        String requestUrl = delay != null ? mockUrl + "/binary?delay=" + delay : mockUrl + "/binary";
+        return webClient.get().uri(requestUrl).retrieve().bodyToMono(String.class).map(ResponseEntity::ok);
+    }
+
+    private static ResponseEntity<String> badDelay() {
+        return ResponseEntity.badRequest().body("delay must be between 0 and " + MAX_DELAY_SECONDS);
+    }
+}
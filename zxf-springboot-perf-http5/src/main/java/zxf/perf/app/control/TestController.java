@@ -6,6 +6,7 @@ import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpResponse;
 import org.apache.hc.core5.http.io.entity.EntityUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.client.RestTemplate;
@@ -18,11 +19,14 @@ import java.io.IOException;
 public class TestController {
     @Autowired
     private WebClientFactory webClientFactory;
+    @Value("${perf.mock.url:http://localhost:8089}")
+    private String mockUrl;
 
     private static final int MAX_DELAY_SECONDS = 30;
 
     // NOTE: RestTemplate/HttpClient are intentionally created per request and never closed,
     // to demonstrate and observe resource leak behavior under load testing.
+    // /template/shared/pool is the correct-usage baseline: one pooled client shared by all requests.
 
     @GetMapping("/template/new/default")
     public ResponseEntity<String> newRestTemplateDefault(@RequestParam(required = false) Integer delay) throws Exception {
@@ -46,6 +50,17 @@ public class TestController {
         return ResponseEntity.ok(testRestTemplate(webClientFactory.newRestTemplateWithCustomHttpClientWithPool(), delay));
     }
 
+    @GetMapping("/template/shared/pool")
+    public ResponseEntity<String> sharedRestTemplatePool(@RequestParam(required = false) Integer delay) throws Exception {
+        if (delay != null) {
+            if (delay < 0 || delay > MAX_DELAY_SECONDS) {
+                return ResponseEntity.badRequest().body("delay must be between 0 and " + MAX_DELAY_SECONDS);
+            }
+            Thread.sleep(delay * 1000L);
+        }
+        return ResponseEntity.ok(testRestTemplate(webClientFactory.sharedRestTemplateWithPool(), delay));
+    }
+
     @GetMapping("/httpclient/new/default")
     public ResponseEntity<String> newHttpClientDefault(@RequestParam(required = false) Integer delay, @RequestParam(defaultValue = "true") Boolean close) throws Exception {
         if (delay != null) {
@@ -60,14 +75,14 @@ public class TestController {
 
     private String testRestTemplate(RestTemplate restTemplate, Integer delay) {
         if (delay != null) {
-            return restTemplate.getForObject("http://localhost:8089/binary?delay={delay}", String.class, delay.toString());
+            return restTemplate.getForObject(mockUrl + "/binary?delay={delay}", String.class, delay.toString());
         }
-        return restTemplate.getForObject("http://localhost:8089/binary", String.class);
+        return restTemplate.getForObject(mockUrl + "/binary", String.class);
     }
 
     private String testHttpClient(CloseableHttpClient httpClient, Integer delay, Boolean close) throws IOException {
         try {
-            String requestUrl = delay != null ? "http://localhost:8089/binary?delay=" + delay : "http://localhost:8089/binary";
+            String requestUrl = delay != null ? mockUrl + "/binary?delay=" + delay : mockUrl + "/binary";
             CloseableHttpResponse response = httpClient.execute(new HttpGet(requestUrl));
             int statusCode = response.getCode();
             if (close) {
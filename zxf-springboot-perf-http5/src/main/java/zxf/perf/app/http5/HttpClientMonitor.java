@@ -3,15 +3,24 @@ package zxf.perf.app.http5;
 import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.hc.client5.http.classic.HttpClient;
+import org.apache.hc.client5.http.impl.DefaultSchemePortResolver;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.core5.http.HttpHost;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import zxf.monitor.*;
+import zxf.monitor.metrics.MonitorMetrics;
 import zxf.monitor.object.MonitorListener;
 import zxf.monitor.object.ObjectMonitor;
+import zxf.monitor.object.SiteLeakReport;
+import zxf.monitor.object.StackCaptureMode;
 import zxf.monitor.object.TReference;
 
 import java.io.Closeable;
 import java.lang.reflect.Field;
+import java.net.URI;
 import java.time.Duration;
+import java.util.List;
 import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -24,10 +33,20 @@ public class HttpClientMonitor {
     private final ThreadMonitor threadMonitor;
     private final ClassMonitor classMonitor;
     private final DescriptorMonitor descriptorMonitor;
+    private final TcpStateMonitor tcpStateMonitor;
+    private final PinningMonitor pinningMonitor;
+    private final MonitorMetrics monitorMetrics;
     private final Set<Class<?>> closableClasses = ConcurrentHashMap.newKeySet();
     private static final ConcurrentMap<Class<?>, Field> CLOSEABLES_FIELD_CACHE = new ConcurrentHashMap<>();
 
-    public HttpClientMonitor() {
+    /**
+     * @param mockUrl        mock 服务地址，TCP 状态按其端口采样
+     * @param sampleInterval 线程/类/描述符的采样间隔，压测编排（如实验运行器）可调小以便前后对比
+     * @param virtualThreads 虚拟线程模式下额外监控载体线程固定
+     */
+    public HttpClientMonitor(@Value("${perf.mock.url:http://localhost:8089}") String mockUrl,
+                             @Value("${perf.monitor.sample-interval:90s}") Duration sampleInterval,
+                             @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
         closeableMonitor = new ObjectMonitor<>(Closeable.class);
 
         closeableMonitor.startup(config -> {
@@ -36,36 +55,72 @@ public class HttpClientMonitor {
             config.setAutoGcBeforeCheck(true);
             config.setLeakSuspectThreshold(5000);
             config.setMaxObjectAge(Duration.ofMinutes(10));
+            // 压测热路径只抽样采集栈顶若干帧，避免每次注册都抓取完整堆栈
+            config.setStackCaptureMode(StackCaptureMode.SAMPLED);
+            config.setStackSampleRate(100);
+            config.setStackDepth(12);
+            config.setSiteIgnoredPrefixes(List.of(HttpClientMonitor.class.getName()));
+            // 泄漏场景下连接数无上限增长，监控器自身只详细跟踪前 5 万个，其余仅计数与抽样
+            config.setMaxTrackedObjects(50_000);
         }, new MonitorListener<Closeable>() {
+            // 批量回调已在调度线程上异步执行；摘要会格式化元数据，仍只在 debug 开启时生成
             @Override
-            public void onObjectRegistered(TReference<Closeable> ref) {
-                log.debug("注册连接: {}", ref.getSummary());
+            public void onObjectsRegistered(List<TReference<Closeable>> refs) {
+                if (log.isDebugEnabled()) {
+                    refs.forEach(ref -> log.debug("注册连接: {}", ref.getSummary()));
+                }
             }
 
             @Override
-            public void onObjectCollected(TReference<Closeable> ref) {
-                log.debug("收集连接: {}", ref.getSummary());
+            public void onObjectsCollected(List<TReference<Closeable>> refs) {
+                if (log.isDebugEnabled()) {
+                    refs.forEach(ref -> log.debug("收集连接: {}", ref.getSummary()));
+                }
             }
 
             @Override
-            public void onLeakSuspected(TReference<Closeable> ref, String reason) {
-                log.warn("连接泄漏嫌疑: {}, 原因: {}", ref.getSummary(), reason);
+            public void onLeakSitesSuspected(List<SiteLeakReport> reports) {
+                for (SiteLeakReport report : reports) {
+                    log.warn("连接泄漏嫌疑: {}, 原因: {}", report, report.reason());
+                }
             }
 
             @Override
-            public void onLeakConfirmed(TReference<Closeable> ref, String reason) {
-                log.error("确认连接泄漏: {}, 原因: {}", ref.getSummary(), reason);
+            public void onLeakSitesConfirmed(List<SiteLeakReport> reports) {
+                for (SiteLeakReport report : reports) {
+                    log.error("确认连接泄漏: {}, 原因: {}", report, report.reason());
+                }
             }
         });
 
-        threadMonitor = new ThreadMonitor(Duration.ofSeconds(90), new String[]{"org.apache.hc.client5", "idle-connection-evictor"}, 1000);
+        threadMonitor = new ThreadMonitor(sampleInterval, new String[]{"org.apache.hc.client5", "idle-connection-evictor", "httpclient-dispatch", "httpclient-main"}, 1000);
         threadMonitor.start();
 
-        classMonitor = new ClassMonitor(Duration.ofSeconds(90), new String[]{"org.apache.hc.client5","java.net.Socket", "javax.net", "sun.net", "sun.nio.ch.NioSocketImpl", "java.lang.Thread"}, 100);
+        classMonitor = ClassMonitor.ofGrowth(sampleInterval, new String[]{"org.apache.hc.client5","java.net.Socket", "javax.net", "sun.net", "sun.nio.ch.NioSocketImpl", "java.lang.Thread"}, 100);
         classMonitor.start();
 
-        descriptorMonitor = new DescriptorMonitor(Duration.ofSeconds(90), 5000);
+        descriptorMonitor = new DescriptorMonitor(sampleInterval, 5000);
         descriptorMonitor.start();
+
+        // 按 10 秒采样到 mock（默认 8089）的 TCP 状态，观察 TIME_WAIT/CLOSE_WAIT 堆积与临时端口占用
+        tcpStateMonitor = new TcpStateMonitor(Duration.ofSeconds(10), new int[]{remotePort(mockUrl)});
+        tcpStateMonitor.start();
+
+        // 请求与阻塞出站调用跑在虚拟线程上时，synchronized 内阻塞会占住载体线程
+        pinningMonitor = virtualThreads ? new PinningMonitor(Duration.ofSeconds(30)) : null;
+        if (pinningMonitor != null) {
+            pinningMonitor.start();
+        }
+
+        // 以 JMX 暴露各监控器计数（zxf.monitor:application=http5,...），便于与压测吞吐对照
+        monitorMetrics = new MonitorMetrics("http5")
+                .objectMonitor(closeableMonitor)
+                .threadMonitor(threadMonitor)
+                .classMonitor(classMonitor)
+                .descriptorMonitor(descriptorMonitor)
+                .tcpStateMonitor(tcpStateMonitor)
+                .pinningMonitor(pinningMonitor);
+        monitorMetrics.registerMBeans();
     }
 
     public void monitor(HttpClient httpClient) {
@@ -99,6 +154,13 @@ public class HttpClientMonitor {
         }
     }
 
+    /**
+     * mock 地址未写端口（如 http://mock/）时取协议默认端口
+     */
+    private static int remotePort(String mockUrl) {
+        return DefaultSchemePortResolver.INSTANCE.resolve(HttpHost.create(URI.create(mockUrl)));
+    }
+
     private static Field lookupCloseablesField(Class<?> clientClass) {
         try {
             Field field = clientClass.getDeclaredField("closeables");
@@ -109,11 +171,26 @@ public class HttpClientMonitor {
         }
     }
 
+    /**
+     * 异步客户端直接跟踪客户端本身：未关闭时其 I/O reactor 线程与连接池一直存活，且 Minimal/H2 实现没有 closeables 字段
+     */
+    public void monitor(CloseableHttpAsyncClient httpAsyncClient) {
+        if (closableClasses.add(httpAsyncClient.getClass())) {
+            log.info("closable class: {}", httpAsyncClient.getClass());
+        }
+        closeableMonitor.register(httpAsyncClient, null);
+    }
+
     @PreDestroy
     public void shutdown() {
+        monitorMetrics.unregisterMBeans();
         closeableMonitor.shutdown();
         threadMonitor.stop();
         classMonitor.stop();
         descriptorMonitor.stop();
+        tcpStateMonitor.stop();
+        if (pinningMonitor != null) {
+            pinningMonitor.stop();
+        }
     }
 }
\ No newline at end of file
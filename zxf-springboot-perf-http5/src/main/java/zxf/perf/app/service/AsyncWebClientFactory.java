@@ -0,0 +1,127 @@
+package zxf.perf.app.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.core5.io.CloseMode;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.reactive.HttpComponentsClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import zxf.perf.app.http5.HttpClientMonitor;
+
+/**
+ * 非阻塞客户端：httpclient5 异步客户端（HTTP/1.1 连接池或 HTTP/2 单连接多路复用）与基于它的响应式 WebClient。
+ * new* 方法每次新建（用于观察泄漏），shared* 方法返回上下文内单例并在关闭时优雅释放
+ */
+@Slf4j
+@Component
+public class AsyncWebClientFactory {
+    @Autowired
+    private HttpClientMonitor monitor;
+    @Autowired
+    private SharedPoolProperties sharedPoolProperties;
+    @Value("${perf.mock.url:http://localhost:8089}")
+    private String mockUrl;
+
+    private volatile CloseableHttpAsyncClient sharedHttp1Client;
+    private volatile CloseableHttpAsyncClient sharedHttp2Client;
+    private volatile WebClient sharedWebClient;
+
+    /**
+     * 每次新建并启动一个异步客户端（各自拥有 I/O reactor 线程），调用方不关闭即泄漏
+     */
+    public CloseableHttpAsyncClient newHttpAsyncClient(boolean http2) {
+        CloseableHttpAsyncClient httpClient = http2 ? HttpAsyncClients.createHttp2Default() : HttpAsyncClients.createDefault();
+        httpClient.start();
+        monitor.monitor(httpClient);
+        return httpClient;
+    }
+
+    /**
+     * 每次新建 WebClient 及其底层异步客户端；WebClient 不提供关闭方法，底层客户端随之泄漏
+     */
+    public WebClient newWebClient() {
+        return WebClient.builder()
+                .clientConnector(new HttpComponentsClientHttpConnector(newHttpAsyncClient(false)))
+                .build();
+    }
+
+    /**
+     * 共享异步客户端：HTTP/1.1 使用按 perf.http-client.shared.* 配置的连接池，HTTP/2 对每个目标只建一条多路复用连接。
+     * 与同步共享客户端相同的双重检查：创建后每次请求只读 volatile 字段，不争用监视器（启动完成后才发布）
+     */
+    public CloseableHttpAsyncClient sharedHttpAsyncClient(boolean http2) {
+        CloseableHttpAsyncClient httpClient = http2 ? sharedHttp2Client : sharedHttp1Client;
+        if (httpClient == null) {
+            synchronized (this) {
+                httpClient = http2 ? sharedHttp2Client : sharedHttp1Client;
+                if (httpClient == null) {
+                    httpClient = http2
+                            ? HttpAsyncClients.customHttp2().setDefaultRequestConfig(sharedPoolProperties.requestConfig()).build()
+                            : newPooledHttp1Client(sharedPoolProperties, mockUrl);
+                    httpClient.start();
+                    if (http2) {
+                        sharedHttp2Client = httpClient;
+                    } else {
+                        sharedHttp1Client = httpClient;
+                    }
+                }
+            }
+        }
+        return httpClient;
+    }
+
+    public WebClient sharedWebClient() {
+        WebClient webClient = sharedWebClient;
+        if (webClient == null) {
+            synchronized (this) {
+                webClient = sharedWebClient;
+                if (webClient == null) {
+                    webClient = sharedWebClient = WebClient.builder()
+                            .clientConnector(new HttpComponentsClientHttpConnector(sharedHttpAsyncClient(false)))
+                            .build();
+                }
+            }
+        }
+        return webClient;
+    }
+
+    /**
+     * Web 服务器优雅停机后执行，在途的异步交换已完成；GRACEFUL 模式等待 I/O reactor 正常退出
+     */
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (sharedHttp1Client != null) {
+            log.info("关闭共享异步客户端（HTTP/1.1）");
+            sharedHttp1Client.close(CloseMode.GRACEFUL);
+            sharedHttp1Client = null;
+            sharedWebClient = null;
+        }
+        if (sharedHttp2Client != null) {
+            log.info("关闭共享异步客户端（HTTP/2）");
+            sharedHttp2Client.close(CloseMode.GRACEFUL);
+            sharedHttp2Client = null;
+        }
+    }
+
+    private static CloseableHttpAsyncClient newPooledHttp1Client(SharedPoolProperties properties, String mockUrl) {
+        PoolingAsyncClientConnectionManager connectionManager = PoolingAsyncClientConnectionManagerBuilder.create()
+                .setDefaultConnectionConfig(properties.connectionConfig())
+                .setMaxConnTotal(properties.getMaxTotal())
+                .setMaxConnPerRoute(properties.getDefaultMaxPerRoute())
+                .build();
+        properties.routeLimits(mockUrl).forEach(connectionManager::setMaxPerRoute);
+
+        return HttpAsyncClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(properties.requestConfig())
+                .evictExpiredConnections()
+                .evictIdleConnections(SharedPoolProperties.timeValue(properties.getEvictIdleAfter()))
+                .build();
+    }
+}
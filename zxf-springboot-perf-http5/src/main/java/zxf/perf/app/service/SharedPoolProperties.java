@@ -0,0 +1,104 @@
+package zxf.perf.app.service;
+
+import lombok.Data;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.impl.DefaultSchemePortResolver;
+import org.apache.hc.client5.http.routing.RoutingSupport;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 共享连接池客户端配置（perf.http-client.shared.*），同步与异步共享客户端共用
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "perf.http-client.shared")
+public class SharedPoolProperties {
+    /**
+     * 连接池最大连接数
+     */
+    private int maxTotal = 200;
+    /**
+     * 每个路由默认最大连接数
+     */
+    private int defaultMaxPerRoute = 50;
+    /**
+     * 按路由覆盖最大连接数，键为 scheme://host:port，如 http://localhost:8089
+     */
+    private Map<String, Integer> maxPerRoute = new LinkedHashMap<>();
+    /**
+     * mock 路由（由 perf.mock.url 得出）的最大连接数，<= 0 时按 defaultMaxPerRoute；mock 端口变化（如实验运行器的随机端口）时无需改键
+     */
+    private int mockMaxPerRoute;
+    /**
+     * 连接空闲超过该时长后再次租用前先校验（检测服务端已关闭的半开连接）
+     */
+    private Duration validateAfterInactivity = Duration.ofSeconds(2);
+    /**
+     * 连接最长存活时间，到期后不再复用（便于服务端扩缩容/DNS 变更后重新分布）
+     */
+    private Duration timeToLive = Duration.ofMinutes(5);
+    /**
+     * 后台清理空闲连接的阈值
+     */
+    private Duration evictIdleAfter = Duration.ofSeconds(30);
+    private Duration connectTimeout = Duration.ofSeconds(10);
+    private Duration connectionRequestTimeout = Duration.ofSeconds(10);
+    private Duration responseTimeout = Duration.ofSeconds(30);
+
+    ConnectionConfig connectionConfig() {
+        return ConnectionConfig.custom()
+                .setTimeToLive(timeValue(timeToLive))
+                .setConnectTimeout(timeout(connectTimeout))
+                .setSocketTimeout(timeout(responseTimeout))
+                .setValidateAfterInactivity(timeValue(validateAfterInactivity))
+                .build();
+    }
+
+    RequestConfig requestConfig() {
+        return RequestConfig.custom()
+                .setConnectionRequestTimeout(timeout(connectionRequestTimeout))
+                .setResponseTimeout(timeout(responseTimeout))
+                .build();
+    }
+
+    Map<HttpRoute, Integer> routeLimits(String mockUrl) {
+        Map<HttpRoute, Integer> limits = new LinkedHashMap<>();
+        if (mockMaxPerRoute > 0) {
+            URI mock = URI.create(mockUrl);
+            limits.put(route(mock.getScheme() + "://" + mock.getRawAuthority(), "perf.mock.url"), mockMaxPerRoute);
+        }
+        maxPerRoute.forEach((target, max) -> limits.put(route(target, "perf.http-client.shared.max-per-route"), max));
+        return limits;
+    }
+
+    /**
+     * 省略端口时补上协议默认端口，与连接池内部的路由键一致
+     */
+    private static HttpRoute route(String target, String property) {
+        try {
+            return new HttpRoute(RoutingSupport.normalize(HttpHost.create(target), DefaultSchemePortResolver.INSTANCE));
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException("Invalid route in " + property + ": " + target, e);
+        }
+    }
+
+    static TimeValue timeValue(Duration duration) {
+        return TimeValue.ofMilliseconds(duration.toMillis());
+    }
+
+    static Timeout timeout(Duration duration) {
+        return Timeout.ofMilliseconds(duration.toMillis());
+    }
+}
@@ -1,5 +1,7 @@
 package zxf.perf.app.service;
 
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.hc.client5.http.classic.HttpClient;
 import org.apache.hc.client5.http.config.ConnectionConfig;
 import org.apache.hc.client5.http.config.RequestConfig;
@@ -8,18 +10,60 @@ import org.apache.hc.client5.http.impl.classic.HttpClients;
 import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
 import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
 import org.apache.hc.core5.http.io.SocketConfig;
+import org.apache.hc.core5.io.CloseMode;
 import org.apache.hc.core5.util.TimeValue;
 import org.apache.hc.core5.util.Timeout;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 import zxf.perf.app.http5.HttpClientMonitor;
 
+@Slf4j
 @Component
 public class WebClientFactory {
     @Autowired
     private HttpClientMonitor monitor;
+    @Autowired
+    private SharedPoolProperties sharedPoolProperties;
+    @Value("${perf.mock.url:http://localhost:8089}")
+    private String mockUrl;
+
+    private volatile CloseableHttpClient sharedHttpClient;
+    private volatile RestTemplate sharedRestTemplate;
+
+    /**
+     * 进程内共享的池化 RestTemplate（正确用法，对照每请求新建的泄漏用法）：首次使用时创建，上下文关闭时优雅关闭。
+     * 单例客户端的 closeables 长期存活属于预期，不注册到泄漏监控
+     */
+    public RestTemplate sharedRestTemplateWithPool() {
+        RestTemplate restTemplate = sharedRestTemplate;
+        if (restTemplate == null) {
+            synchronized (this) {
+                restTemplate = sharedRestTemplate;
+                if (restTemplate == null) {
+                    sharedHttpClient = newSharedHttpClient(sharedPoolProperties, mockUrl);
+                    restTemplate = sharedRestTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(sharedHttpClient));
+                }
+            }
+        }
+        return restTemplate;
+    }
+
+    /**
+     * Web 服务器优雅停机（等待在途请求完成）之后才销毁单例，此时池中连接已归还；
+     * GRACEFUL 模式下关闭空闲清理线程并逐个正常关闭连接
+     */
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (sharedHttpClient != null) {
+            log.info("关闭共享连接池客户端");
+            sharedHttpClient.close(CloseMode.GRACEFUL);
+            sharedHttpClient = null;
+            sharedRestTemplate = null;
+        }
+    }
 
     public RestTemplate newRestTemplateWithDefaultHttpClient() {
         HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory();
@@ -64,4 +108,25 @@ public class WebClientFactory {
         monitor.monitor(httpClient);
         return httpClient;
     }
+
+    private static CloseableHttpClient newSharedHttpClient(SharedPoolProperties properties, String mockUrl) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setDefaultConnectionConfig(properties.connectionConfig())
+                .setDefaultSocketConfig(SocketConfig.custom()
+                        .setSoKeepAlive(true)
+                        .setTcpNoDelay(true)
+                        .setSoTimeout(SharedPoolProperties.timeout(properties.getResponseTimeout()))
+                        .build())
+                .setMaxConnTotal(properties.getMaxTotal())
+                .setMaxConnPerRoute(properties.getDefaultMaxPerRoute())
+                .build();
+        properties.routeLimits(mockUrl).forEach(connectionManager::setMaxPerRoute);
+
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(properties.requestConfig())
+                .evictExpiredConnections()
+                .evictIdleConnections(SharedPoolProperties.timeValue(properties.getEvictIdleAfter()))
+                .build();
+    }
 }
@@ -0,0 +1,30 @@
+package zxf.loadgen;
+
+import org.HdrHistogram.Histogram;
+
+import java.util.Locale;
+
+/**
+ * 延迟分位数（毫秒）
+ */
+public record LatencySummary(long count, double mean, double p50, double p90, double p99, double p999, double p9999,
+                             double max) {
+    /**
+     * 直方图以微秒记录
+     */
+    public static LatencySummary of(Histogram histogram) {
+        return new LatencySummary(histogram.getTotalCount(), histogram.getMean() / 1000.0,
+                millis(histogram, 50.0), millis(histogram, 90.0), millis(histogram, 99.0),
+                millis(histogram, 99.9), millis(histogram, 99.99), histogram.getMaxValue() / 1000.0);
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    String toJson() {
+        return String.format(Locale.ROOT,
+                "{\"count\":%d,\"mean\":%.3f,\"p50\":%.3f,\"p90\":%.3f,\"p99\":%.3f,\"p999\":%.3f,\"p9999\":%.3f,\"max\":%.3f}",
+                count, mean, p50, p90, p99, p999, p9999, max);
+    }
+}
@@ -0,0 +1,102 @@
+package zxf.loadgen;
+
+import lombok.Builder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 压测参数
+ *
+ * @param uri         目标地址
+ * @param mode        开环/闭环
+ * @param concurrency 闭环并发数
+ * @param rate        目标速率（请求/秒），开环必填；闭环可选，用于节拍发送与协调遗漏校正
+ * @param duration    统计时长
+ * @param warmup      预热时长（期间的请求不计入结果）
+ * @param timeout     单请求超时
+ * @param version     HTTP 版本
+ * @param closeConnections true 时每个请求带 Connection: close（关闭 keep-alive，模拟 ab 默认行为）
+ * @param maxInFlight 开环最大在途请求数，超过后计划时刻顺延（延迟仍从计划时刻计算）
+ */
+@Builder(toBuilder = true)
+public record LoadConfig(URI uri, LoadMode mode, int concurrency, double rate, Duration duration, Duration warmup,
+                         Duration timeout, HttpClient.Version version, boolean closeConnections,
+                         int maxInFlight) {
+
+    public LoadConfig {
+        mode = mode != null ? mode : LoadMode.CLOSED;
+        duration = duration != null ? duration : Duration.ofSeconds(30);
+        warmup = warmup != null ? warmup : Duration.ZERO;
+        timeout = timeout != null ? timeout : Duration.ofSeconds(30);
+        version = version != null ? version : HttpClient.Version.HTTP_1_1;
+        maxInFlight = maxInFlight > 0 ? maxInFlight : 10_000;
+        if (uri == null) {
+            throw new IllegalArgumentException("--url is required");
+        }
+        if (mode == LoadMode.OPEN && rate <= 0) {
+            throw new IllegalArgumentException("--rate is required in open-loop mode");
+        }
+        if (mode == LoadMode.CLOSED && concurrency <= 0) {
+            throw new IllegalArgumentException("--concurrency must be positive in closed-loop mode");
+        }
+    }
+
+    /**
+     * 解析命令行参数：--url=http://localhost:8080/template/new/default --mode=open --rate=1000 ...
+     */
+    public static LoadConfig fromArgs(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            if (eq > 0) {
+                options.put(arg.substring(2, eq), arg.substring(eq + 1));
+            } else if (i + 1 < args.length && !args[i + 1].startsWith("--")) {
+                options.put(arg.substring(2), args[++i]);
+            } else {
+                options.put(arg.substring(2), "true");
+            }
+        }
+        return LoadConfig.builder()
+                .uri(options.containsKey("url") ? URI.create(options.get("url")) : null)
+                .mode(LoadMode.valueOf(options.getOrDefault("mode", "closed").toUpperCase()))
+                .concurrency(Integer.parseInt(options.getOrDefault("concurrency", "10")))
+                .rate(Double.parseDouble(options.getOrDefault("rate", "0")))
+                .duration(parseDuration(options.getOrDefault("duration", "30s")))
+                .warmup(parseDuration(options.getOrDefault("warmup", "5s")))
+                .timeout(parseDuration(options.getOrDefault("timeout", "30s")))
+                .version("2".equals(options.get("http")) ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+                .closeConnections(!Boolean.parseBoolean(options.getOrDefault("keep-alive", "true")))
+                .maxInFlight(Integer.parseInt(options.getOrDefault("max-in-flight", "10000")))
+                .build();
+    }
+
+    /**
+     * 支持 500ms / 30s / 5m / 1h、不带单位的秒数（5）以及 ISO-8601（PT30S）
+     */
+    public static Duration parseDuration(String text) {
+        if (text.startsWith("P") || text.startsWith("p")) {
+            return Duration.parse(text);
+        }
+        if (Character.isDigit(text.charAt(text.length() - 1))) {
+            return Duration.ofSeconds(Long.parseLong(text));
+        }
+        if (text.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(text.substring(0, text.length() - 2)));
+        }
+        long value = Long.parseLong(text.substring(0, text.length() - 1));
+        return switch (text.charAt(text.length() - 1)) {
+            case 's' -> Duration.ofSeconds(value);
+            case 'm' -> Duration.ofMinutes(value);
+            case 'h' -> Duration.ofHours(value);
+            default -> throw new IllegalArgumentException("Unsupported duration unit: " + text);
+        };
+    }
+}
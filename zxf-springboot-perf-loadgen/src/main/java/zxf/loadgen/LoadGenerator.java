@@ -0,0 +1,218 @@
+package zxf.loadgen;
+
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * HTTP 压测工具（替代 ab）：java.net.http 客户端 + 虚拟线程，支持 HTTP/1.1 keep-alive、HTTP/2，
+ * 开环定速与闭环两种模式，HdrHistogram 记录延迟并校正协调遗漏，结果输出为 JSON/CSV
+ * <pre>
+ * java -jar loadgen.jar --url=http://localhost:8080/template/new/default --mode=closed --concurrency=10 --duration=60s
+ * java -jar loadgen.jar --url=http://localhost:8080/template/new/custom/pool --mode=open --rate=2000 --out=result.csv
+ * </pre>
+ */
+@Slf4j
+public class LoadGenerator {
+    /**
+     * 延迟以微秒记录，最大可记录 1 小时，3 位有效数字
+     */
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.HOURS.toMicros(1);
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    static {
+        // java.net.http 默认禁止设置 Connection 头，关闭 keep-alive 模式需要放开
+        if (System.getProperty("jdk.httpclient.allowRestrictedHeaders") == null) {
+            System.setProperty("jdk.httpclient.allowRestrictedHeaders", "connection");
+        }
+    }
+
+    private final LoadConfig config;
+    private final HttpRequest request;
+    private final Recorder correctedRecorder = new Recorder(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+    private final Recorder rawRecorder = new Recorder(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final ConcurrentMap<Integer, LongAdder> statusCodes = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LongAdder> errorTypes = new ConcurrentHashMap<>();
+
+    public LoadGenerator(LoadConfig config) {
+        this.config = config;
+        HttpRequest.Builder builder = HttpRequest.newBuilder(config.uri()).timeout(config.timeout()).GET();
+        if (config.closeConnections()) {
+            builder.header("Connection", "close");
+        }
+        this.request = builder.build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadConfig config = LoadConfig.fromArgs(args);
+        LoadResult result = new LoadGenerator(config).run();
+        log.info(result.summary());
+
+        String out = argValue(args, "out");
+        if (out == null) {
+            System.out.println(result.toJson());
+        } else if (out.endsWith(".csv")) {
+            Path path = Path.of(out);
+            boolean header = !Files.exists(path) || Files.size(path) == 0;
+            Files.writeString(path, (header ? LoadResult.CSV_HEADER + "\n" : "") + result.toCsvRow() + "\n",
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } else {
+            Files.writeString(Path.of(out), result.toJson() + "\n");
+        }
+    }
+
+    /**
+     * 执行预热 + 统计，返回统计窗口内计划发送的请求结果
+     */
+    public LoadResult run() throws InterruptedException {
+        log.info("压测开始: {} mode={} concurrency={} rate={} warmup={} duration={} http={} closeConnections={}",
+                config.uri(), config.mode(), config.concurrency(), config.rate(), config.warmup(), config.duration(),
+                config.version(), config.closeConnections());
+
+        long measureStart = System.nanoTime() + config.warmup().toNanos();
+        long measureEnd = measureStart + config.duration().toNanos();
+
+        try (ExecutorService clientExecutor = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient client = HttpClient.newBuilder()
+                     .version(config.version())
+                     .connectTimeout(config.timeout())
+                     .executor(clientExecutor)
+                     .build();
+             ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            if (config.mode() == LoadMode.OPEN) {
+                runOpenLoop(client, workers, measureStart, measureEnd);
+            } else {
+                runClosedLoop(client, workers, measureStart, measureEnd);
+            }
+            // 统计窗口结束后最多再等一个请求超时，未完成的请求中断丢弃
+            workers.shutdown();
+            long waitNanos = Math.max(0, measureEnd - System.nanoTime()) + config.timeout().toNanos()
+                    + TimeUnit.SECONDS.toNanos(1);
+            if (!workers.awaitTermination(waitNanos, TimeUnit.NANOSECONDS)) {
+                workers.shutdownNow();
+            }
+        }
+        double seconds = config.duration().toNanos() / 1e9;
+
+        Histogram corrected = correctedRecorder.getIntervalHistogram();
+        Histogram raw = rawRecorder.getIntervalHistogram();
+        return new LoadResult(config, seconds, requests.sum(), errors.sum(), snapshot(statusCodes), snapshot(errorTypes),
+                LatencySummary.of(corrected), LatencySummary.of(raw), corrected);
+    }
+
+    /**
+     * 开环：按 1/rate 间隔计划请求，每个请求一个虚拟线程；延迟从计划时刻计算，
+     * 服务端变慢时等待中的请求同样计入，不会因发送被阻塞而漏记
+     */
+    private void runOpenLoop(HttpClient client, ExecutorService workers, long measureStart, long measureEnd)
+            throws InterruptedException {
+        long periodNanos = (long) (1e9 / config.rate());
+        long start = System.nanoTime();
+        Semaphore inFlight = new Semaphore(config.maxInFlight());
+        for (long i = 0; ; i++) {
+            long intended = start + i * periodNanos;
+            if (intended >= measureEnd) {
+                break;
+            }
+            parkUntil(intended);
+            inFlight.acquire();
+            workers.execute(() -> {
+                try {
+                    execute(client, intended, intended >= measureStart);
+                } finally {
+                    inFlight.release();
+                }
+            });
+        }
+    }
+
+    /**
+     * 闭环：每个虚拟线程串行发送；指定 rate 时每线程按 concurrency/rate 的节拍发送，
+     * 上一个请求超时占用的节拍计入下一个请求的校正延迟
+     */
+    private void runClosedLoop(HttpClient client, ExecutorService workers, long measureStart, long measureEnd) {
+        long periodNanos = config.rate() > 0 ? (long) (1e9 * config.concurrency() / config.rate()) : 0;
+        for (int worker = 0; worker < config.concurrency(); worker++) {
+            workers.execute(() -> {
+                long intended = System.nanoTime();
+                while (intended < measureEnd && !Thread.currentThread().isInterrupted()) {
+                    if (periodNanos > 0) {
+                        parkUntil(intended);
+                    } else {
+                        intended = System.nanoTime();
+                    }
+                    execute(client, intended, intended >= measureStart);
+                    intended += periodNanos;
+                }
+            });
+        }
+    }
+
+    private void execute(HttpClient client, long intendedNanos, boolean measured) {
+        long sendNanos = System.nanoTime();
+        Integer status = null;
+        String error = null;
+        try {
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            status = response.statusCode();
+        } catch (IOException e) {
+            error = e.getClass().getSimpleName();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        long doneNanos = System.nanoTime();
+        if (!measured) {
+            return;
+        }
+        requests.increment();
+        if (status != null) {
+            statusCodes.computeIfAbsent(status, k -> new LongAdder()).increment();
+        } else {
+            errors.increment();
+            errorTypes.computeIfAbsent(error, k -> new LongAdder()).increment();
+        }
+        correctedRecorder.recordValue(Math.min(HIGHEST_TRACKABLE_MICROS, (doneNanos - intendedNanos) / 1000));
+        rawRecorder.recordValue(Math.min(HIGHEST_TRACKABLE_MICROS, (doneNanos - sendNanos) / 1000));
+    }
+
+    private static void parkUntil(long deadlineNanos) {
+        long remaining;
+        while ((remaining = deadlineNanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    private static <K extends Comparable<K>> Map<K, Long> snapshot(Map<K, LongAdder> counters) {
+        Map<K, Long> result = new TreeMap<>();
+        counters.forEach((key, counter) -> result.put(key, counter.sum()));
+        return result;
+    }
+
+    private static String argValue(String[] args, String name) {
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].startsWith("--" + name + "=")) {
+                return args[i].substring(name.length() + 3);
+            }
+            if (args[i].equals("--" + name) && i + 1 < args.length) {
+                return args[i + 1];
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,15 @@
+package zxf.loadgen;
+
+/**
+ * 压测模式
+ */
+public enum LoadMode {
+    /**
+     * 开环：按固定速率计划请求，不受响应快慢影响，延迟从计划发送时刻计算（天然校正协调遗漏）
+     */
+    OPEN,
+    /**
+     * 闭环：concurrency 个虚拟线程各自串行请求；指定 rate 时按每线程间隔节拍发送（wrk2 方式）并据此校正
+     */
+    CLOSED
+}
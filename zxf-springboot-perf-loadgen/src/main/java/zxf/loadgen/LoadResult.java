@@ -0,0 +1,62 @@
+package zxf.loadgen;
+
+import org.HdrHistogram.Histogram;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 压测结果
+ *
+ * @param config      参数
+ * @param seconds     实际统计时长（秒）
+ * @param requests    完成的请求数（含错误）
+ * @param errors      异常（超时、连接失败等）请求数
+ * @param statusCodes HTTP 状态码 -> 数量
+ * @param errorTypes  异常类型 -> 数量
+ * @param corrected   从计划发送时刻计算的延迟（已校正协调遗漏）
+ * @param raw         从实际发送时刻计算的延迟（未校正）
+ * @param histogram   校正后的原始直方图（微秒），供汇总多次运行
+ */
+public record LoadResult(LoadConfig config, double seconds, long requests, long errors, Map<Integer, Long> statusCodes,
+                         Map<String, Long> errorTypes, LatencySummary corrected, LatencySummary raw,
+                         Histogram histogram) {
+    public static final String CSV_HEADER = "url,mode,concurrency,rate,seconds,requests,errors,throughput,"
+            + "mean_ms,p50_ms,p90_ms,p99_ms,p999_ms,max_ms,raw_p99_ms";
+
+    public double throughput() {
+        return seconds > 0 ? requests / seconds : 0.0;
+    }
+
+    public String toJson() {
+        return String.format(Locale.ROOT, "{\"url\":\"%s\",\"mode\":\"%s\",\"concurrency\":%d,\"rate\":%.1f,"
+                        + "\"http\":\"%s\",\"closeConnections\":%b,\"seconds\":%.3f,\"requests\":%d,\"errors\":%d,"
+                        + "\"throughput\":%.1f,\"statusCodes\":{%s},\"errorTypes\":{%s},\"latency\":%s,\"rawLatency\":%s}",
+                escape(config.uri().toString()), config.mode(), config.concurrency(), config.rate(), config.version(),
+                config.closeConnections(), seconds, requests, errors, throughput(),
+                statusCodes.entrySet().stream().map(e -> "\"" + e.getKey() + "\":" + e.getValue())
+                        .collect(Collectors.joining(",")),
+                errorTypes.entrySet().stream().map(e -> "\"" + escape(e.getKey()) + "\":" + e.getValue())
+                        .collect(Collectors.joining(",")),
+                corrected.toJson(), raw.toJson());
+    }
+
+    public String toCsvRow() {
+        return String.format(Locale.ROOT, "%s,%s,%d,%.1f,%.3f,%d,%d,%.1f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f",
+                config.uri(), config.mode(), config.concurrency(), config.rate(), seconds, requests, errors,
+                throughput(), corrected.mean(), corrected.p50(), corrected.p90(), corrected.p99(), corrected.p999(),
+                corrected.max(), raw.p99());
+    }
+
+    public String summary() {
+        return String.format(Locale.ROOT, "%s %s: %,d 请求 (%,d 错误) %.1f req/s, p50 %.2fms, p99 %.2fms, "
+                        + "p99.9 %.2fms, max %.2fms (未校正 p99 %.2fms)",
+                config.mode(), config.uri(), requests, errors, throughput(), corrected.p50(), corrected.p99(),
+                corrected.p999(), corrected.max(), raw.p99());
+    }
+
+    private static String escape(String text) {
+        return text.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+}
@@ -0,0 +1,15 @@
+package zxf.mock;
+
+import java.time.Duration;
+
+/**
+ * 按需生成的响应体描述，不持有数据，写出时从共享缓冲区循环取片段
+ *
+ * @param size       声明的响应体字节数
+ * @param chunked    true 时不设置 Content-Length，以 chunked 编码发送
+ * @param chunkSize  每次写出的字节数
+ * @param interval   两次写出之间的停顿（慢速滴灌），ZERO 表示连续写出
+ * @param resetAfter 写出该字节数后强制关闭连接（模拟上游中途断开），-1 表示完整发送
+ */
+public record GeneratedBody(long size, boolean chunked, int chunkSize, Duration interval, long resetAfter) {
+}
@@ -0,0 +1,95 @@
+package zxf.mock;
+
+import org.apache.coyote.CloseNowException;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 写出 {@link GeneratedBody}：所有请求共享同一块只读缓冲区，任意大小的响应体不按请求分配内存
+ */
+public class GeneratedBodyHttpMessageConverter extends AbstractHttpMessageConverter<GeneratedBody> {
+    /**
+     * 单次写出上限，也是共享缓冲区大小
+     */
+    public static final int MAX_CHUNK_SIZE = 64 * 1024;
+    private static final byte[] FILLER = filler();
+
+    public GeneratedBodyHttpMessageConverter() {
+        super(MediaType.ALL);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return GeneratedBody.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected Long getContentLength(GeneratedBody body, MediaType contentType) {
+        return body.chunked() ? null : body.size();
+    }
+
+    @Override
+    protected MediaType getDefaultContentType(GeneratedBody body) {
+        return MediaType.APPLICATION_OCTET_STREAM;
+    }
+
+    @Override
+    protected GeneratedBody readInternal(Class<? extends GeneratedBody> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("GeneratedBody is write-only", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(GeneratedBody body, HttpOutputMessage outputMessage) throws IOException {
+        OutputStream out = outputMessage.getBody();
+        if (body.chunked()) {
+            // 先提交响应头：否则小响应体在缓冲区内完成，Tomcat 会自动补上 Content-Length
+            out.flush();
+        }
+        long limit = body.resetAfter() >= 0 ? body.resetAfter() : body.size();
+        long intervalMillis = body.interval().toMillis();
+        long written = 0;
+        while (written < limit) {
+            int length = (int) Math.min(body.chunkSize(), limit - written);
+            out.write(FILLER, 0, length);
+            written += length;
+            if (intervalMillis > 0 && written < limit) {
+                out.flush();
+                pause(intervalMillis);
+            }
+        }
+        if (body.resetAfter() >= 0) {
+            out.flush();
+            // Tomcat 对该异常不记录错误日志，直接关闭连接，客户端读到不完整的响应体
+            throw new CloseNowException("Mock connection reset after " + written + " of " + body.size() + " bytes");
+        }
+    }
+
+    private static void pause(long millis) throws InterruptedIOException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Slow drip interrupted");
+        }
+    }
+
+    /**
+     * 可打印字符行，按文本查看时便于定位截断位置
+     */
+    private static byte[] filler() {
+        byte[] line = "0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ\n".getBytes(StandardCharsets.US_ASCII);
+        byte[] buffer = new byte[MAX_CHUNK_SIZE];
+        for (int i = 0; i < buffer.length; i++) {
+            buffer[i] = line[i % line.length];
+        }
+        return buffer;
+    }
+}
@@ -0,0 +1,108 @@
+package zxf.mock;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 毫秒级响应延迟分布，参数格式：
+ * <pre>
+ * fixed:50               固定 50ms
+ * uniform:10,200         10~200ms 均匀分布
+ * lognormal:50,0.8       对数正态分布，中位数 50ms，sigma 0.8（长尾）
+ * bimodal:20,2000,0.01   双峰：99% 为 20ms，1% 为 2000ms 的慢尾
+ * </pre>
+ */
+public sealed interface LatencyDistribution {
+    long MAX_MILLIS = 60_000;
+
+    long sample();
+
+    static LatencyDistribution parse(String spec) {
+        int colon = spec.indexOf(':');
+        if (colon < 0) {
+            throw new IllegalArgumentException("latency must be <type>:<params>, e.g. fixed:50");
+        }
+        String type = spec.substring(0, colon);
+        String[] params = spec.substring(colon + 1).split(",");
+        LatencyDistribution distribution = switch (type) {
+            case "fixed" -> new Fixed(millis(params, 0, 1));
+            case "uniform" -> new Uniform(millis(params, 0, 2), millis(params, 1, 2));
+            case "lognormal" -> new LogNormal(millis(params, 0, 2), number(params, 1, 2));
+            case "bimodal" -> new Bimodal(millis(params, 0, 3), millis(params, 1, 3), number(params, 2, 3));
+            default -> throw new IllegalArgumentException("Unknown latency distribution: " + type);
+        };
+        distribution.validate();
+        return distribution;
+    }
+
+    private static long millis(String[] params, int index, int expected) {
+        long value = Math.round(number(params, index, expected));
+        if (value < 0 || value > MAX_MILLIS) {
+            throw new IllegalArgumentException("latency must be between 0 and " + MAX_MILLIS + "ms");
+        }
+        return value;
+    }
+
+    private static double number(String[] params, int index, int expected) {
+        if (params.length != expected) {
+            throw new IllegalArgumentException("Expected " + expected + " latency parameters but got " + params.length);
+        }
+        try {
+            return Double.parseDouble(params[index].trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid latency parameter: " + params[index]);
+        }
+    }
+
+    default void validate() {
+    }
+
+    record Fixed(long millis) implements LatencyDistribution {
+        @Override
+        public long sample() {
+            return millis;
+        }
+    }
+
+    record Uniform(long min, long max) implements LatencyDistribution {
+        @Override
+        public long sample() {
+            return min == max ? min : ThreadLocalRandom.current().nextLong(min, max + 1);
+        }
+
+        @Override
+        public void validate() {
+            if (min > max) {
+                throw new IllegalArgumentException("uniform min must not exceed max");
+            }
+        }
+    }
+
+    record LogNormal(long median, double sigma) implements LatencyDistribution {
+        @Override
+        public long sample() {
+            double value = median * Math.exp(sigma * ThreadLocalRandom.current().nextGaussian());
+            return Math.min(MAX_MILLIS, Math.round(value));
+        }
+
+        @Override
+        public void validate() {
+            if (median <= 0 || sigma < 0) {
+                throw new IllegalArgumentException("lognormal requires median > 0 and sigma >= 0");
+            }
+        }
+    }
+
+    record Bimodal(long fast, long slow, double slowRatio) implements LatencyDistribution {
+        @Override
+        public long sample() {
+            return ThreadLocalRandom.current().nextDouble() < slowRatio ? slow : fast;
+        }
+
+        @Override
+        public void validate() {
+            if (slowRatio < 0 || slowRatio > 1) {
+                throw new IllegalArgumentException("bimodal slow ratio must be between 0 and 1");
+            }
+        }
+    }
+}
@@ -2,10 +2,24 @@ package zxf.mock;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import zxf.mock.nio.NioMockServer;
+
+import java.util.Arrays;
+import java.util.Map;
 
 @SpringBootApplication
 public class MockApplication {
-    public static void main(String[] args) {
-        SpringApplication.run(MockApplication.class, args);
+    public static final String CONFIG_NAME = "mock";
+
+    public static void main(String[] args) throws Exception {
+        // --mock.engine=nio 时不启动 Spring/Tomcat，改用非阻塞事件循环引擎
+        if (Arrays.asList(args).contains("--mock.engine=nio")) {
+            NioMockServer.main(args);
+            return;
+        }
+        SpringApplication application = new SpringApplication(MockApplication.class);
+        // 配置文件为 mock.yml 而非 application.yml：实验运行器与 http5 同在一个类路径时各自读取自己的配置
+        application.setDefaultProperties(Map.of("spring.config.name", CONFIG_NAME));
+        application.run(args);
     }
 }
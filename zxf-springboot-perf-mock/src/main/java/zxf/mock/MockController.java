@@ -1,42 +1,172 @@
 package zxf.mock;
 
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.ClassPathResource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @RestController
 public class MockController {
-    private static final int MAX_DELAY_SECONDS = 30;
+    public static final int MAX_DELAY_SECONDS = 30;
+    static final String RESET_ERROR_PATH = "/generate/reset";
+    private static final long MAX_GENERATED_SIZE = DataSize.ofGigabytes(10).toBytes();
+    @Autowired
+    private PayloadStore payloadStore;
+    /**
+     * delay 与 latency 通过定时器异步完成，等待期间不占用 Tomcat 工作线程，可同时挂起上万个延迟请求
+     */
+    private final ScheduledExecutorService delayScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "mock-delay");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     @GetMapping("/text")
-    public Object text(@RequestParam(required = false) Integer delay) throws InterruptedException {
-        if (delay != null) {
-            if (delay < 0 || delay > MAX_DELAY_SECONDS) {
-                return ResponseEntity.badRequest()
-                        .body("delay must be between 0 and " + MAX_DELAY_SECONDS);
-            }
-            Thread.sleep(delay * 1000L);
+    public Object text(@RequestParam(required = false) Integer delay) {
+        return respond(delay, "text");
+    }
+
+    @GetMapping("/binary")
+    public Object binary(@RequestParam(required = false) Integer delay) {
+        return respond(delay, "binary");
+    }
+
+    /**
+     * 生成任意大小的响应体，模拟真实上游的延迟分布与异常行为
+     * <pre>
+     * /generate?size=1MB&latency=lognormal:50,0.8
+     * /generate?size=256KB&transfer=chunked&chunk=1KB&interval=100ms   慢速滴灌
+     * /generate?size=1MB&resetAfter=64KB                                写出 64KB 后断开连接
+     * /generate?size=10KB&keepAlive=false                               响应 Connection: close，拒绝长连接
+     * </pre>
+     *
+     * @param size       响应体大小，如 512、64KB、10MB
+     * @param latency    首字节前的延迟分布（毫秒），见 {@link LatencyDistribution}
+     * @param transfer   length（Content-Length）或 chunked
+     * @param chunk      每次写出的字节数，最大 64KB
+     * @param interval   两次写出之间的停顿，如 100ms；慢速滴灌期间占用请求线程，高并发时建议开启虚拟线程模式
+     * @param resetAfter 写出该字节数后关闭连接
+     * @param keepAlive  false 时响应后关闭连接
+     */
+    @GetMapping("/generate")
+    public Object generate(@RequestParam(defaultValue = "1KB") String size,
+                           @RequestParam(required = false) String latency,
+                           @RequestParam(defaultValue = "length") String transfer,
+                           @RequestParam(defaultValue = "8KB") String chunk,
+                           @RequestParam(defaultValue = "0ms") String interval,
+                           @RequestParam(required = false) String resetAfter,
+                           @RequestParam(defaultValue = "true") boolean keepAlive) {
+        GeneratedBody body;
+        long latencyMillis;
+        try {
+            body = generatedBody(size, transfer, chunk, interval, resetAfter);
+            latencyMillis = latency == null ? 0 : LatencyDistribution.parse(latency).sample();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         }
 
-        log.debug("text");
-        return new ClassPathResource("163.txt");
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok().contentType(MediaType.APPLICATION_OCTET_STREAM);
+        if (!keepAlive) {
+            builder.header(HttpHeaders.CONNECTION, "close");
+        }
+        ResponseEntity<GeneratedBody> response = builder.body(body);
+        if (latencyMillis == 0) {
+            return response;
+        }
+        DeferredResult<ResponseEntity<GeneratedBody>> result = new DeferredResult<>(latencyMillis + 10_000);
+        delayScheduler.schedule(() -> result.setResult(response), latencyMillis, TimeUnit.MILLISECONDS);
+        return result;
     }
 
-    @GetMapping("/binary")
-    public Object binary(@RequestParam(required = false) Integer delay) throws InterruptedException {
-        if (delay != null) {
-            if (delay < 0 || delay > MAX_DELAY_SECONDS) {
-                return ResponseEntity.badRequest()
-                        .body("delay must be between 0 and " + MAX_DELAY_SECONDS);
-            }
-            Thread.sleep(delay * 1000L);
+    /**
+     * resetAfter 断开连接时的错误页，不写任何内容；仅供错误转发使用，直接访问返回 404
+     */
+    @RequestMapping(RESET_ERROR_PATH)
+    public void reset(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (request.getDispatcherType() != DispatcherType.ERROR) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+        }
+    }
+
+    private static GeneratedBody generatedBody(String size, String transfer, String chunk, String interval,
+                                               String resetAfter) {
+        long sizeBytes = DataSize.parse(size).toBytes();
+        if (sizeBytes < 0 || sizeBytes > MAX_GENERATED_SIZE) {
+            throw new IllegalArgumentException("size must be between 0 and " + MAX_GENERATED_SIZE);
         }
+        if (!transfer.equals("length") && !transfer.equals("chunked")) {
+            throw new IllegalArgumentException("transfer must be length or chunked");
+        }
+        long chunkBytes = DataSize.parse(chunk).toBytes();
+        if (chunkBytes <= 0 || chunkBytes > GeneratedBodyHttpMessageConverter.MAX_CHUNK_SIZE) {
+            throw new IllegalArgumentException("chunk must be between 1 and "
+                    + GeneratedBodyHttpMessageConverter.MAX_CHUNK_SIZE);
+        }
+        Duration pause = DurationStyle.detectAndParse(interval);
+        if (pause.isNegative()) {
+            throw new IllegalArgumentException("interval must not be negative");
+        }
+        long resetBytes = resetAfter == null ? -1 : DataSize.parse(resetAfter).toBytes();
+        if (resetAfter != null && (resetBytes < 0 || resetBytes >= sizeBytes)) {
+            throw new IllegalArgumentException("resetAfter must be less than size");
+        }
+        return new GeneratedBody(sizeBytes, transfer.equals("chunked"), (int) chunkBytes, pause, resetBytes);
+    }
+
+    private Object respond(Integer delay, String name) {
+        if (delay == null) {
+            log.debug(name);
+            return payload(name);
+        }
+        if (delay < 0 || delay > MAX_DELAY_SECONDS) {
+            return ResponseEntity.badRequest()
+                    .body("delay must be between 0 and " + MAX_DELAY_SECONDS);
+        }
+
+        DeferredResult<ResponseEntity<Payload>> result = new DeferredResult<>(TimeUnit.SECONDS.toMillis(delay + 10L));
+        delayScheduler.schedule(() -> {
+            log.debug(name);
+            result.setResult(payload(name));
+        }, delay, TimeUnit.SECONDS);
+        return result;
+    }
+
+    /**
+     * 预加载的响应体，带预计算的 ETag 与 Content-Length；If-None-Match 命中时由 Spring 返回 304
+     */
+    private ResponseEntity<Payload> payload(String name) {
+        Payload payload = payloadStore.get(name);
+        return ResponseEntity.ok()
+                .contentType(payload.contentType())
+                .contentLength(payload.length())
+                .eTag(payload.etag())
+                .body(payload);
+    }
 
-        log.debug("binary");
-        return new ClassPathResource("163.dat");
+    /**
+     * 上下文关闭时丢弃尚未到期的延迟响应，避免在已停止的 Web 应用上加载资源
+     */
+    @PreDestroy
+    public void shutdown() {
+        delayScheduler.shutdownNow();
     }
 }
@@ -0,0 +1,44 @@
+package zxf.mock;
+
+import org.apache.coyote.CloseNowException;
+import org.apache.coyote.UpgradeProtocol;
+import org.apache.coyote.http2.Http2Protocol;
+import org.springframework.boot.tomcat.TomcatConnectorCustomizer;
+import org.springframework.boot.web.error.ErrorPage;
+import org.springframework.boot.web.error.ErrorPageRegistrar;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverters;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class MockServerConfig implements WebMvcConfigurer {
+    /**
+     * h2c 单连接默认只允许 100 个并发流、20 个同时执行，HTTP/2 客户端多路复用压测时放开
+     */
+    @Bean
+    public TomcatConnectorCustomizer http2StreamsCustomizer() {
+        return connector -> {
+            for (UpgradeProtocol protocol : connector.findUpgradeProtocols()) {
+                if (protocol instanceof Http2Protocol http2) {
+                    http2.setMaxConcurrentStreams(20_000);
+                    http2.setMaxConcurrentStreamExecution(20_000);
+                }
+            }
+        };
+    }
+
+    /**
+     * 响应已提交后 Tomcat 仍会把错误页 include 进响应体再断开，/generate 注入的断开使用空错误页，保证客户端只收到截断的数据
+     */
+    @Bean
+    public ErrorPageRegistrar connectionResetErrorPage() {
+        return registry -> registry.addErrorPages(new ErrorPage(CloseNowException.class, MockController.RESET_ERROR_PATH));
+    }
+
+    @Override
+    public void configureMessageConverters(HttpMessageConverters.ServerBuilder builder) {
+        builder.addCustomConverter(new PayloadHttpMessageConverter());
+        builder.addCustomConverter(new GeneratedBodyHttpMessageConverter());
+    }
+}
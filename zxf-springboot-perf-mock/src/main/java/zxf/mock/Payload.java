@@ -0,0 +1,28 @@
+package zxf.mock;
+
+import org.springframework.http.MediaType;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+/**
+ * 预加载的响应体：落地为临时文件（供 sendfile）并映射为只读内存（无 sendfile 时直接写出），ETag 与长度预先计算
+ *
+ * @param name        资源名
+ * @param contentType 内容类型
+ * @param file        落地文件
+ * @param buffer      只读映射（共享，写出时使用 {@link #content()} 的独立视图）
+ * @param etag        强 ETag（SHA-256 前 16 字节）
+ */
+public record Payload(String name, MediaType contentType, Path file, ByteBuffer buffer, String etag) {
+    public long length() {
+        return buffer.capacity();
+    }
+
+    /**
+     * 独立读位置的只读视图，可并发写出
+     */
+    public ByteBuffer content() {
+        return buffer.duplicate();
+    }
+}
@@ -0,0 +1,89 @@
+package zxf.mock;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * 写出预加载的 {@link Payload}：连接器支持时交给 Tomcat sendfile（FileChannel.transferTo，内核零拷贝，
+ * 写出在 Servlet 返回后由连接器完成），否则（含 delay 的异步分派，Tomcat 在异步分派中不执行 sendfile）
+ * 从只读映射写入响应流：Channels.newChannel 按 8 KB 中间 byte[] 分块拷贝，省去的是每次请求读文件与整份拷贝
+ */
+@Slf4j
+public class PayloadHttpMessageConverter extends AbstractHttpMessageConverter<Payload> {
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private volatile boolean sendfileLogged;
+    private volatile boolean bufferLogged;
+
+    public PayloadHttpMessageConverter() {
+        super(MediaType.ALL);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return Payload.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected Long getContentLength(Payload payload, MediaType contentType) {
+        return payload.length();
+    }
+
+    @Override
+    protected MediaType getDefaultContentType(Payload payload) {
+        return payload.contentType();
+    }
+
+    @Override
+    protected Payload readInternal(Class<? extends Payload> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Payload is write-only", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(Payload payload, HttpOutputMessage outputMessage) throws IOException {
+        HttpServletRequest request = currentRequest();
+        // 须在响应提交（getBody 首次 flush）前设置，Tomcat 据此跳过输出缓冲直接 sendfile
+        if (request != null && request.getDispatcherType() == DispatcherType.REQUEST
+                && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            if (!sendfileLogged) {
+                sendfileLogged = true;
+                log.info("payload 写出方式: sendfile");
+            }
+            request.setAttribute(SENDFILE_FILENAME, payload.file().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, payload.length());
+            return;
+        }
+        if (!bufferLogged) {
+            bufferLogged = true;
+            log.info("payload 写出方式: mapped buffer");
+        }
+        WritableByteChannel channel = Channels.newChannel(outputMessage.getBody());
+        ByteBuffer content = payload.content();
+        while (content.hasRemaining()) {
+            channel.write(content);
+        }
+    }
+
+    private static HttpServletRequest currentRequest() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes instanceof ServletRequestAttributes servletAttributes ? servletAttributes.getRequest() : null;
+    }
+}
@@ -0,0 +1,78 @@
+package zxf.mock;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Map;
+
+/**
+ * 启动时预加载 mock 响应体，请求路径上不再解析/读取类路径资源
+ */
+@Slf4j
+@Component
+public class PayloadStore {
+    private final Map<String, Payload> payloads;
+
+    public PayloadStore() {
+        payloads = Map.of(
+                "binary", load("163.dat", MediaType.APPLICATION_OCTET_STREAM),
+                "text", load("163.txt", MediaType.TEXT_PLAIN));
+    }
+
+    public Payload get(String name) {
+        return payloads.get(name);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Payload payload : payloads.values()) {
+            try {
+                Files.deleteIfExists(payload.file());
+            } catch (IOException e) {
+                log.warn("删除临时文件失败: {}", payload.file(), e);
+            }
+        }
+    }
+
+    private static Payload load(String resource, MediaType contentType) {
+        try (InputStream in = new ClassPathResource(resource).getInputStream()) {
+            byte[] bytes = in.readAllBytes();
+            // 类路径资源可能在 jar 内，落地为普通文件才能 sendfile
+            Path file = Files.createTempFile("mock-", "-" + resource);
+            file.toFile().deleteOnExit();
+            Files.write(file, bytes);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                // 映射在通道关闭后依然有效
+                Payload payload = new Payload(resource, contentType, file,
+                        channel.map(FileChannel.MapMode.READ_ONLY, 0, bytes.length), etag(bytes));
+                log.info("预加载 {}: {} 字节, ETag {}", resource, payload.length(), payload.etag());
+                return payload;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot preload " + resource, e);
+        }
+    }
+
+    private static String etag(byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            return "\"" + HexFormat.of().formatHex(Arrays.copyOf(digest, 16)) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package zxf.mock.nio;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 单线程事件循环：一个 Selector 负责多个连接的读、解析与写出，delay 由时间轮到期后再开始写出，
+ * 延迟期间连接只占用一个 fd 与少量对象，不占用线程
+ */
+@Slf4j
+final class EventLoop implements Runnable {
+    /**
+     * 请求头上限，超过返回 431 并关闭连接
+     */
+    private static final int MAX_HEADER_SIZE = 8 * 1024;
+    private static final long TICK_MILLIS = 10;
+    private static final int WHEEL_SIZE = 1024;
+
+    private final MockResponses responses;
+    private final Selector selector;
+    private final Thread thread;
+    private final Queue<SocketChannel> registrations = new ConcurrentLinkedQueue<>();
+    private final TimerWheel timerWheel = new TimerWheel(TICK_MILLIS, WHEEL_SIZE);
+    /**
+     * 循环内共享的读缓冲区，读到完整请求头后立即解析，无需按连接分配
+     */
+    private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(16 * 1024);
+    private final AtomicInteger connections = new AtomicInteger();
+    private volatile boolean running = true;
+    private volatile int delayed;
+
+    EventLoop(String name, MockResponses responses) throws IOException {
+        this.responses = responses;
+        this.selector = Selector.open();
+        this.thread = new Thread(this, name);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    /**
+     * 由接收线程调用，连接在事件循环线程上注册
+     */
+    void register(SocketChannel channel) {
+        registrations.add(channel);
+        selector.wakeup();
+    }
+
+    int connectionCount() {
+        return connections.get();
+    }
+
+    int delayedCount() {
+        return delayed;
+    }
+
+    void shutdown() throws InterruptedException {
+        running = false;
+        selector.wakeup();
+        thread.join();
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            try {
+                selector.select(timerWheel.millisUntilNextTick());
+                registerPending();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    handle(key);
+                }
+                timerWheel.advance();
+                delayed = timerWheel.size();
+            } catch (IOException | RuntimeException e) {
+                log.error("事件循环异常", e);
+            }
+        }
+        for (SelectionKey key : selector.keys()) {
+            closeQuietly((NioConnection) key.attachment());
+        }
+        try {
+            selector.close();
+        } catch (IOException e) {
+            log.warn("关闭 Selector 失败", e);
+        }
+    }
+
+    private void registerPending() {
+        SocketChannel channel;
+        while ((channel = registrations.poll()) != null) {
+            NioConnection connection = new NioConnection(channel);
+            try {
+                channel.configureBlocking(false);
+                connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+                connections.incrementAndGet();
+            } catch (IOException e) {
+                log.debug("注册连接失败", e);
+                try {
+                    channel.close();
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+
+    private void handle(SelectionKey key) {
+        NioConnection connection = (NioConnection) key.attachment();
+        try {
+            if (key.isReadable()) {
+                read(connection);
+            } else if (key.isWritable()) {
+                write(connection);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.debug("连接异常关闭: {}", e.toString());
+            closeQuietly(connection);
+        }
+    }
+
+    private void read(NioConnection connection) throws IOException {
+        readBuffer.clear();
+        int read = connection.channel.read(readBuffer);
+        if (read < 0) {
+            closeQuietly(connection);
+            return;
+        }
+        readBuffer.flip();
+        if (connection.timeout != null) {
+            // 延迟中只缓存后续流水线请求，响应写完后再处理；缓存超过请求头上限时暂停读取
+            connection.pending = connection.pending == null ? copy(readBuffer) : append(connection.pending, readBuffer);
+            if (connection.pending.remaining() > MAX_HEADER_SIZE) {
+                connection.key.interestOps(0);
+            }
+            return;
+        }
+        if (connection.pending != null) {
+            connection.pending = append(connection.pending, readBuffer);
+            processPending(connection);
+        } else {
+            process(connection, readBuffer);
+        }
+    }
+
+    /**
+     * 继续处理连接上缓存的请求字节（上次不完整或流水线中的后续请求）
+     */
+    private void processPending(NioConnection connection) throws IOException {
+        ByteBuffer pending = connection.pending;
+        connection.pending = null;
+        process(connection, pending);
+    }
+
+    /**
+     * 从 data 中解析一个请求并开始响应；剩余字节拷贝到连接上，待本次响应写完后再处理
+     */
+    private void process(NioConnection connection, ByteBuffer data) throws IOException {
+        int headerEnd = indexOfHeaderEnd(data);
+        if (headerEnd < 0) {
+            if (data.remaining() > MAX_HEADER_SIZE) {
+                respond(connection, MockResponses.error(431, "Request Header Fields Too Large",
+                        "Request header exceeds " + MAX_HEADER_SIZE + " bytes", true));
+                return;
+            }
+            if (data.hasRemaining()) {
+                connection.pending = copy(data);
+            }
+            connection.key.interestOps(SelectionKey.OP_READ);
+            return;
+        }
+
+        MockResponse response;
+        try {
+            HttpRequestHead request = HttpRequestHead.parse(data, headerEnd - data.position());
+            response = responses.route(request);
+        } catch (IllegalArgumentException e) {
+            response = MockResponses.error(400, "Bad Request", e.getMessage(), true);
+        }
+        data.position(headerEnd + 4);
+        if (data.hasRemaining() && !response.close()) {
+            connection.pending = copy(data);
+        }
+
+        if (response.delayMillis() > 0) {
+            // 延迟期间仍监听读，对端提前断开时立即关闭连接并取消定时；到期后由时间轮在本线程上开始写出
+            connection.key.interestOps(SelectionKey.OP_READ);
+            MockResponse delayedResponse = response;
+            connection.timeout = timerWheel.schedule(response.delayMillis(), () -> {
+                connection.timeout = null;
+                try {
+                    respond(connection, delayedResponse);
+                } catch (IOException | RuntimeException e) {
+                    log.debug("延迟响应写出失败: {}", e.toString());
+                    closeQuietly(connection);
+                }
+            });
+        } else {
+            respond(connection, response);
+        }
+    }
+
+    private void respond(NioConnection connection, MockResponse response) throws IOException {
+        if (!connection.channel.isOpen()) {
+            return;
+        }
+        connection.response = response;
+        write(connection);
+    }
+
+    /**
+     * 聚集写出响应头与响应体视图；套接字缓冲区满时改为等待 OP_WRITE
+     */
+    private void write(NioConnection connection) throws IOException {
+        MockResponse response = connection.response;
+        connection.channel.write(response.buffers());
+        if (response.hasRemaining()) {
+            connection.key.interestOps(SelectionKey.OP_WRITE);
+            return;
+        }
+        connection.response = null;
+        if (response.close()) {
+            closeQuietly(connection);
+        } else if (connection.pending != null) {
+            processPending(connection);
+        } else {
+            connection.key.interestOps(SelectionKey.OP_READ);
+        }
+    }
+
+    private void closeQuietly(NioConnection connection) {
+        if (connection == null || !connection.channel.isOpen()) {
+            return;
+        }
+        try {
+            connection.channel.close();
+        } catch (IOException e) {
+            log.debug("关闭连接失败", e);
+        }
+        if (connection.timeout != null) {
+            timerWheel.cancel(connection.timeout);
+            connection.timeout = null;
+        }
+        connection.pending = null;
+        connection.response = null;
+        connections.decrementAndGet();
+    }
+
+    private static int indexOfHeaderEnd(ByteBuffer data) {
+        for (int i = data.position(); i + 3 < data.limit(); i++) {
+            if (data.get(i) == '\r' && data.get(i + 1) == '\n' && data.get(i + 2) == '\r' && data.get(i + 3) == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static ByteBuffer copy(ByteBuffer data) {
+        return ByteBuffer.allocate(data.remaining()).put(data).flip();
+    }
+
+    private static ByteBuffer append(ByteBuffer pending, ByteBuffer data) {
+        return ByteBuffer.allocate(pending.remaining() + data.remaining()).put(pending).put(data).flip();
+    }
+}
@@ -0,0 +1,88 @@
+package zxf.mock.nio;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 解析后的请求行与 mock 关心的请求头（仅支持无请求体的 HTTP/1.x 请求）
+ *
+ * @param method      请求方法
+ * @param path        路径（不含查询串）
+ * @param query       查询串，无则为空串
+ * @param keepAlive   HTTP/1.1 默认保持连接，Connection: close 或 HTTP/1.0 未声明 keep-alive 时关闭
+ * @param ifNoneMatch If-None-Match 请求头，无则为 null
+ * @param hasBody     带请求体（Content-Length 大于 0 或 Transfer-Encoding）；mock 不读取请求体，返回 400 并关闭连接
+ */
+record HttpRequestHead(String method, String path, String query, boolean keepAlive, String ifNoneMatch,
+                       boolean hasBody) {
+
+    /**
+     * 解析 buffer 中 position 起 length 字节的请求头（不含结尾空行）
+     *
+     * @throws IllegalArgumentException 请求行或 Content-Length 格式错误
+     */
+    static HttpRequestHead parse(ByteBuffer buffer, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        String[] lines = new String(bytes, StandardCharsets.ISO_8859_1).split("\r\n");
+        String[] requestLine = lines[0].split(" ");
+        if (requestLine.length != 3 || !requestLine[2].startsWith("HTTP/1.")) {
+            throw new IllegalArgumentException("Malformed request line: " + lines[0]);
+        }
+        boolean http10 = requestLine[2].equals("HTTP/1.0");
+        String connection = null;
+        String ifNoneMatch = null;
+        boolean hasBody = false;
+        for (int i = 1; i < lines.length; i++) {
+            int colon = lines[i].indexOf(':');
+            if (colon <= 0) {
+                continue;
+            }
+            String name = lines[i].substring(0, colon).trim();
+            String value = lines[i].substring(colon + 1).trim();
+            if (name.equalsIgnoreCase("Connection")) {
+                connection = value.toLowerCase();
+            } else if (name.equalsIgnoreCase("If-None-Match")) {
+                ifNoneMatch = value;
+            } else if (name.equalsIgnoreCase("Transfer-Encoding")) {
+                hasBody = true;
+            } else if (name.equalsIgnoreCase("Content-Length")) {
+                hasBody |= contentLength(value) > 0;
+            }
+        }
+        boolean keepAlive = http10 ? connection != null && connection.contains("keep-alive")
+                : connection == null || !connection.contains("close");
+
+        String target = requestLine[1];
+        int question = target.indexOf('?');
+        return new HttpRequestHead(requestLine[0], question < 0 ? target : target.substring(0, question),
+                question < 0 ? "" : target.substring(question + 1), keepAlive, ifNoneMatch, hasBody);
+    }
+
+    private static long contentLength(String value) {
+        long length;
+        try {
+            length = Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            length = -1;
+        }
+        if (length < 0) {
+            throw new IllegalArgumentException("Invalid Content-Length: " + value);
+        }
+        return length;
+    }
+
+    /**
+     * 查询参数值，不存在时为 null（mock 参数均为简单值，不做 URL 解码）
+     */
+    String queryParam(String name) {
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = eq < 0 ? pair : pair.substring(0, eq);
+            if (key.equals(name)) {
+                return eq < 0 ? "" : pair.substring(eq + 1);
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,16 @@
+package zxf.mock.nio;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 待发送的响应
+ *
+ * @param buffers     依次聚集写出的缓冲区（响应头 + 响应体视图）
+ * @param delayMillis 写出前的延迟
+ * @param close       写完后关闭连接
+ */
+record MockResponse(ByteBuffer[] buffers, long delayMillis, boolean close) {
+    boolean hasRemaining() {
+        return buffers[buffers.length - 1].hasRemaining();
+    }
+}
@@ -0,0 +1,105 @@
+package zxf.mock.nio;
+
+import zxf.mock.MockController;
+import zxf.mock.Payload;
+import zxf.mock.PayloadStore;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * 与 {@link MockController} 相同的 /binary、/text 契约：delay 为 0~30 秒，ETag 命中返回 304。
+ * 200/304 响应头按是否保持连接预先编码为只读直接缓冲区，每个响应只创建缓冲区视图
+ */
+final class MockResponses {
+    private final Map<String, PreparedPayload> routes;
+
+    MockResponses(PayloadStore payloadStore) {
+        routes = Map.of(
+                "/binary", new PreparedPayload(payloadStore.get("binary")),
+                "/text", new PreparedPayload(payloadStore.get("text")));
+    }
+
+    MockResponse route(HttpRequestHead request) {
+        if (request.hasBody()) {
+            // 不读取请求体：拒绝并关闭连接，避免请求体被当作流水线中的下一个请求解析
+            return error(400, "Bad Request", "Request body not supported", true);
+        }
+        boolean close = !request.keepAlive();
+        boolean head = request.method().equals("HEAD");
+        if (!head && !request.method().equals("GET")) {
+            return error(405, "Method Not Allowed", "Method not allowed", close);
+        }
+        PreparedPayload prepared = routes.get(request.path());
+        if (prepared == null) {
+            return error(404, "Not Found", "No mock for " + request.path(), close);
+        }
+
+        long delayMillis = 0;
+        String delay = request.queryParam("delay");
+        if (delay != null) {
+            int seconds;
+            try {
+                seconds = Integer.parseInt(delay);
+            } catch (NumberFormatException e) {
+                seconds = -1;
+            }
+            if (seconds < 0 || seconds > MockController.MAX_DELAY_SECONDS) {
+                return error(400, "Bad Request", "delay must be between 0 and " + MockController.MAX_DELAY_SECONDS,
+                        close);
+            }
+            delayMillis = seconds * 1000L;
+        }
+
+        String etag = prepared.payload.etag();
+        if (etag.equals(request.ifNoneMatch()) || "*".equals(request.ifNoneMatch())) {
+            return new MockResponse(new ByteBuffer[]{(close ? prepared.notModifiedClose : prepared.notModified)
+                    .duplicate()}, delayMillis, close);
+        }
+        ByteBuffer header = (close ? prepared.okClose : prepared.ok).duplicate();
+        ByteBuffer[] buffers = head ? new ByteBuffer[]{header} : new ByteBuffer[]{header, prepared.payload.content()};
+        return new MockResponse(buffers, delayMillis, close);
+    }
+
+    static MockResponse error(int status, String reason, String message, boolean close) {
+        byte[] body = message.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer header = ascii("HTTP/1.1 " + status + " " + reason + "\r\n"
+                + "Content-Type: text/plain;charset=UTF-8\r\n"
+                + "Content-Length: " + body.length + "\r\n"
+                + (close ? "Connection: close\r\n" : "")
+                + "\r\n");
+        return new MockResponse(new ByteBuffer[]{header, ByteBuffer.wrap(body)}, 0, close);
+    }
+
+    private static ByteBuffer ascii(String text) {
+        return ByteBuffer.wrap(text.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static ByteBuffer direct(String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
+        return ByteBuffer.allocateDirect(bytes.length).put(bytes).flip().asReadOnlyBuffer();
+    }
+
+    private static final class PreparedPayload {
+        private final Payload payload;
+        private final ByteBuffer ok;
+        private final ByteBuffer okClose;
+        private final ByteBuffer notModified;
+        private final ByteBuffer notModifiedClose;
+
+        private PreparedPayload(Payload payload) {
+            this.payload = payload;
+            String ok = "HTTP/1.1 200 OK\r\n"
+                    + "ETag: " + payload.etag() + "\r\n"
+                    + "Content-Type: " + payload.contentType() + "\r\n"
+                    + "Content-Length: " + payload.length() + "\r\n";
+            String notModified = "HTTP/1.1 304 Not Modified\r\n"
+                    + "ETag: " + payload.etag() + "\r\n";
+            this.ok = direct(ok + "\r\n");
+            this.okClose = direct(ok + "Connection: close\r\n\r\n");
+            this.notModified = direct(notModified + "\r\n");
+            this.notModifiedClose = direct(notModified + "Connection: close\r\n\r\n");
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package zxf.mock.nio;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+
+/**
+ * 单个连接的状态，只由所属事件循环访问；空闲或延迟中的连接不持有读写缓冲区
+ */
+final class NioConnection {
+    final SocketChannel channel;
+    SelectionKey key;
+    /**
+     * 尚未处理的请求字节（不完整的请求头或流水线中的后续请求），无则为 null
+     */
+    ByteBuffer pending;
+    /**
+     * 正在发送的响应，无则为 null
+     */
+    MockResponse response;
+    /**
+     * 延迟响应的定时条目，连接关闭时取消，无则为 null
+     */
+    TimerWheel.Timeout timeout;
+
+    NioConnection(SocketChannel channel) {
+        this.channel = channel;
+    }
+}
@@ -0,0 +1,146 @@
+package zxf.mock.nio;
+
+import lombok.extern.slf4j.Slf4j;
+import zxf.mock.PayloadStore;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * 非阻塞 mock 引擎（HTTP/1.1）：一个接收线程 + 少量 Selector 事件循环，delay 由时间轮实现，
+ * 数万个延迟中的连接只占用 fd 不占用线程；/binary、/text 契约与 Tomcat 引擎相同
+ * <pre>
+ * java -jar zxf-springboot-perf-mock-1.0.0-SNAPSHOT-exec.jar --mock.engine=nio --server.port=8089 --mock.nio.loops=2
+ * </pre>
+ * 5 万以上并发连接需同时放开 mock 与压测端的 ulimit -n 及 net.core.somaxconn
+ */
+@Slf4j
+public class NioMockServer implements Closeable {
+    private static final int BACKLOG = 4096;
+    private static final long STATS_INTERVAL_MILLIS = 10_000;
+
+    private final int port;
+    private final PayloadStore payloadStore = new PayloadStore();
+    private final List<EventLoop> loops = new ArrayList<>();
+    private final ServerSocketChannel serverChannel;
+    private final Thread acceptor;
+    private final Thread stats;
+
+    public NioMockServer(int port, int loopCount) throws IOException {
+        MockResponses responses = new MockResponses(payloadStore);
+        for (int i = 0; i < loopCount; i++) {
+            loops.add(new EventLoop("nio-mock-loop-" + i, responses));
+        }
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+        serverChannel.bind(new InetSocketAddress(port), BACKLOG);
+        this.port = ((InetSocketAddress) serverChannel.getLocalAddress()).getPort();
+        acceptor = new Thread(this::accept, "nio-mock-acceptor");
+        stats = new Thread(this::logStats, "nio-mock-stats");
+        stats.setDaemon(true);
+    }
+
+    public static void main(String[] args) throws Exception {
+        int port = Integer.parseInt(argValue(args, "server.port", "8089"));
+        int loopCount = Integer.parseInt(argValue(args, "mock.nio.loops",
+                String.valueOf(Math.min(4, Runtime.getRuntime().availableProcessors()))));
+        NioMockServer server = new NioMockServer(port, loopCount);
+        CountDownLatch stopped = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.close();
+            stopped.countDown();
+        }, "nio-mock-shutdown"));
+        server.start();
+        stopped.await();
+    }
+
+    public void start() {
+        loops.forEach(EventLoop::start);
+        acceptor.start();
+        stats.start();
+        log.info("NIO mock 已启动: 端口 {}, 事件循环 {} 个", port, loops.size());
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    @Override
+    public void close() {
+        try {
+            serverChannel.close();
+            acceptor.join();
+            for (EventLoop loop : loops) {
+                loop.shutdown();
+            }
+        } catch (IOException e) {
+            log.warn("关闭监听端口失败", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        stats.interrupt();
+        payloadStore.shutdown();
+        log.info("NIO mock 已停止");
+    }
+
+    /**
+     * 阻塞接收，按轮询分配给事件循环
+     */
+    private void accept() {
+        int next = 0;
+        while (serverChannel.isOpen()) {
+            try {
+                SocketChannel channel = serverChannel.accept();
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                // 计数器溢出为负后仍落在 [0, size) 内
+                loops.get(Math.floorMod(next++, loops.size())).register(channel);
+            } catch (ClosedChannelException e) {
+                return;
+            } catch (IOException e) {
+                // fd 耗尽等情况下短暂退避，避免空转
+                log.warn("接收连接失败: {}", e.toString());
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException ie) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void logStats() {
+        int lastConnections = -1;
+        int lastDelayed = -1;
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                Thread.sleep(STATS_INTERVAL_MILLIS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            int connections = loops.stream().mapToInt(EventLoop::connectionCount).sum();
+            int delayed = loops.stream().mapToInt(EventLoop::delayedCount).sum();
+            if (connections != lastConnections || delayed != lastDelayed) {
+                log.info("NIO mock 连接数 {}，延迟中 {}", connections, delayed);
+                lastConnections = connections;
+                lastDelayed = delayed;
+            }
+        }
+    }
+
+    private static String argValue(String[] args, String name, String defaultValue) {
+        for (String arg : args) {
+            if (arg.startsWith("--" + name + "=")) {
+                return arg.substring(name.length() + 3);
+            }
+        }
+        return defaultValue;
+    }
+}
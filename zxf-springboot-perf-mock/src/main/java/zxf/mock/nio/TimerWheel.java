@@ -0,0 +1,102 @@
+package zxf.mock.nio;
+
+import java.util.ArrayDeque;
+
+/**
+ * 单线程哈希时间轮：按到期 tick 散列到槽位，推进时只检查当前槽位；调度、取消与到期均为 O(1)，
+ * 只在所属事件循环线程上使用，无需同步
+ */
+final class TimerWheel {
+    private final long tickNanos;
+    private final long startNanos = System.nanoTime();
+    private final ArrayDeque<Timeout>[] buckets;
+    private final int mask;
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    TimerWheel(long tickMillis, int wheelSize) {
+        if (Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("wheelSize must be a power of two");
+        }
+        this.tickNanos = tickMillis * 1_000_000;
+        this.buckets = new ArrayDeque[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new ArrayDeque<>();
+        }
+        this.mask = wheelSize - 1;
+    }
+
+    Timeout schedule(long delayMillis, Runnable task) {
+        long elapsed = System.nanoTime() - startNanos + delayMillis * 1_000_000;
+        // 向上取整到 tick，宁晚勿早；已到期的任务在下一个 tick 执行
+        long deadlineTick = Math.max(currentTick + 1, (elapsed + tickNanos - 1) / tickNanos);
+        Timeout timeout = new Timeout(deadlineTick, task);
+        buckets[(int) (deadlineTick & mask)].add(timeout);
+        size++;
+        return timeout;
+    }
+
+    /**
+     * 取消未执行的任务：立即释放任务（及其引用的连接），槽位中的空条目在到期推进时丢弃
+     */
+    void cancel(Timeout timeout) {
+        if (timeout.task != null) {
+            timeout.task = null;
+            size--;
+        }
+    }
+
+    /**
+     * 推进到当前时刻并执行到期任务；槽位中未到期的（下几圈）任务保留
+     */
+    void advance() {
+        long targetTick = (System.nanoTime() - startNanos) / tickNanos;
+        while (currentTick < targetTick && size > 0) {
+            currentTick++;
+            ArrayDeque<Timeout> bucket = buckets[(int) (currentTick & mask)];
+            for (int i = bucket.size(); i > 0; i--) {
+                Timeout timeout = bucket.poll();
+                if (timeout.deadlineTick <= currentTick) {
+                    Runnable task = timeout.task;
+                    if (task != null) {
+                        timeout.task = null;
+                        size--;
+                        task.run();
+                    }
+                } else {
+                    bucket.add(timeout);
+                }
+            }
+        }
+        currentTick = Math.max(currentTick, targetTick);
+    }
+
+    /**
+     * select 的超时时间：没有定时任务时为 0（一直阻塞到有 I/O 或被唤醒），否则等到下一个 tick
+     */
+    long millisUntilNextTick() {
+        if (size == 0) {
+            return 0;
+        }
+        long nextTickNanos = startNanos + (currentTick + 1) * tickNanos;
+        return Math.max(1, (nextTickNanos - System.nanoTime() + 999_999) / 1_000_000);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * 定时条目，按引用取消（task 为 null 表示已执行或已取消）
+     */
+    static final class Timeout {
+        private final long deadlineTick;
+        private Runnable task;
+
+        private Timeout(long deadlineTick, Runnable task) {
+            this.deadlineTick = deadlineTick;
+            this.task = task;
+        }
+    }
+}
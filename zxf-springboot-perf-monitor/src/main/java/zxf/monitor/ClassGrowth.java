@@ -0,0 +1,18 @@
+package zxf.monitor;
+
+/**
+ * 类增长趋势（窗口内线性回归斜率）
+ *
+ * @param className          类名
+ * @param instances          最新实例数
+ * @param bytes              最新字节数
+ * @param instancesPerMinute 实例增长速率
+ * @param bytesPerMinute     字节增长速率
+ */
+public record ClassGrowth(String className, long instances, long bytes, double instancesPerMinute, double bytesPerMinute) {
+    @Override
+    public String toString() {
+        return String.format("%s - %d instances (%+.1f/min) - %d bytes (%+.0f B/min)",
+                className, instances, instancesPerMinute, bytes, bytesPerMinute);
+    }
+}
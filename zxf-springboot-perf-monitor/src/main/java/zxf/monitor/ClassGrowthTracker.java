@@ -0,0 +1,149 @@
+package zxf.monitor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 类直方图时间序列 - 类名驻留为 int 编号，每个类保留最近 window 次采样（扁平 long 数组环形存储），
+ * 按线性回归斜率与持续增长比例识别缓慢泄漏
+ */
+class ClassGrowthTracker {
+    /**
+     * 窗口内相邻采样中增长的比例下限，用于过滤锯齿波动
+     */
+    private static final double SUSTAINED_RATIO = 0.7;
+
+    private final int window;
+    private final long minInstanceGrowth;
+    private final Map<String, Integer> classIds = new HashMap<>();
+    private String[] classNames = new String[64];
+    private long[] instanceSeries;
+    private long[] byteSeries;
+    private long[] firstSample = new long[64];
+    private final long[] sampleTimes;
+    private long sampleCount;
+
+    /**
+     * @param window            窗口采样数
+     * @param minInstanceGrowth 窗口内实例数增长下限，低于该值不报告
+     */
+    ClassGrowthTracker(int window, long minInstanceGrowth) {
+        this.window = Math.max(3, window);
+        this.minInstanceGrowth = minInstanceGrowth;
+        this.sampleTimes = new long[this.window];
+        this.instanceSeries = new long[classNames.length * this.window];
+        this.byteSeries = new long[classNames.length * this.window];
+    }
+
+    /**
+     * 开始一次采样：本次未出现的类记为 0
+     */
+    void beginSample(long timeMillis) {
+        int slot = (int) (sampleCount % window);
+        sampleTimes[slot] = timeMillis;
+        for (int id = 0; id < classIds.size(); id++) {
+            instanceSeries[id * window + slot] = 0;
+            byteSeries[id * window + slot] = 0;
+        }
+        sampleCount++;
+    }
+
+    /**
+     * 记录当前采样中一个类的数据
+     */
+    void record(String className, long instances, long bytes) {
+        Integer id = classIds.get(className);
+        if (id == null) {
+            id = classIds.size();
+            ensureCapacity(id + 1);
+            classIds.put(className, id);
+            classNames[id] = className;
+            firstSample[id] = sampleCount - 1;
+        }
+        int slot = (int) ((sampleCount - 1) % window);
+        instanceSeries[id * window + slot] = instances;
+        byteSeries[id * window + slot] = bytes;
+    }
+
+    /**
+     * 计算持续增长的类，按字节增长速率降序
+     *
+     * @param limit 最多返回数量
+     */
+    List<ClassGrowth> topGrowers(int limit) {
+        List<ClassGrowth> growers = new ArrayList<>();
+        int samples = (int) Math.min(sampleCount, window);
+        if (samples < 3) {
+            return growers;
+        }
+        long oldest = sampleCount - samples;
+        for (int id = 0; id < classIds.size(); id++) {
+            // 只使用类首次出现之后的采样，避免出现前的 0 被当作增长
+            long from = Math.max(oldest, firstSample[id]);
+            int n = (int) (sampleCount - from);
+            if (n < 3) {
+                continue;
+            }
+            ClassGrowth growth = evaluate(id, from, n);
+            if (growth != null) {
+                growers.add(growth);
+            }
+        }
+        growers.sort(Comparator.comparingDouble(ClassGrowth::bytesPerMinute).reversed());
+        return growers.size() > limit ? growers.subList(0, limit) : growers;
+    }
+
+    private ClassGrowth evaluate(int id, long from, int n) {
+        int base = id * window;
+        long t0 = sampleTimes[(int) (from % window)];
+        double sumX = 0, sumXX = 0, sumB = 0, sumXB = 0, sumI = 0, sumXI = 0;
+        int increases = 0;
+        long firstInstances = 0, lastInstances = 0, lastBytes = 0, previousBytes = 0;
+        for (int i = 0; i < n; i++) {
+            int slot = (int) ((from + i) % window);
+            double x = (sampleTimes[slot] - t0) / 60000.0;
+            long instances = instanceSeries[base + slot];
+            long bytes = byteSeries[base + slot];
+            sumX += x;
+            sumXX += x * x;
+            sumB += bytes;
+            sumXB += x * bytes;
+            sumI += instances;
+            sumXI += x * instances;
+            if (i == 0) {
+                firstInstances = instances;
+            } else if (bytes > previousBytes) {
+                increases++;
+            }
+            previousBytes = bytes;
+            lastInstances = instances;
+            lastBytes = bytes;
+        }
+        double denominator = n * sumXX - sumX * sumX;
+        if (denominator <= 0) {
+            return null;
+        }
+        double bytesPerMinute = (n * sumXB - sumX * sumB) / denominator;
+        double instancesPerMinute = (n * sumXI - sumX * sumI) / denominator;
+        if (bytesPerMinute <= 0 || (double) increases / (n - 1) < SUSTAINED_RATIO
+                || lastInstances - firstInstances < minInstanceGrowth) {
+            return null;
+        }
+        return new ClassGrowth(classNames[id], lastInstances, lastBytes, instancesPerMinute, bytesPerMinute);
+    }
+
+    private void ensureCapacity(int classes) {
+        if (classes <= classNames.length) {
+            return;
+        }
+        int capacity = classNames.length * 2;
+        classNames = Arrays.copyOf(classNames, capacity);
+        firstSample = Arrays.copyOf(firstSample, capacity);
+        instanceSeries = Arrays.copyOf(instanceSeries, capacity * window);
+        byteSeries = Arrays.copyOf(byteSeries, capacity * window);
+    }
+}
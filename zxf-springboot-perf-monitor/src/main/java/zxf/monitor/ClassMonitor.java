@@ -1,76 +1,118 @@
 package zxf.monitor;
 
 import lombok.extern.slf4j.Slf4j;
+import zxf.util.ClassHistogramParser;
+import zxf.util.DiagnosticCommandInvoker;
 import zxf.util.JCmdInvoker;
 
 import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
-import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
 
 @Slf4j
 public class ClassMonitor {
-    private static final Pattern PATTERN = Pattern.compile("^\\s*\\d+:\\s+(\\d+)\\s+(\\d+)\\s+([^\\s]+)");
+    private static final int TREND_WINDOW = 10;
+    private static final int TOP_GROWERS = 10;
     private final Duration checkInterval;
     private final String[] searchKeys;
-    private final long instanceLimit;
-    private final ScheduledExecutorService monitorExecutor;
+    private final boolean forceGc;
+    private final ClassHistogramParser parser;
+    private final ClassGrowthTracker growthTracker;
+    private volatile List<ClassGrowth> topGrowers = List.of();
+    private MonitorTask task;
 
-    public ClassMonitor(Duration checkInterval, String[] searchKeys, long instanceLimit) {
+    private ClassMonitor(Duration checkInterval, String[] searchKeys, long minInstanceGrowth, boolean forceGc) {
         this.checkInterval = checkInterval;
         this.searchKeys = searchKeys;
-        this.instanceLimit = instanceLimit;
-        this.monitorExecutor = newSingleThreadScheduledExecutor(r -> {
-            Thread thread = new Thread(r, "ClassMonitor-" + Arrays.asList(searchKeys));
-            thread.setDaemon(true);
-            return thread;
-        });
+        this.forceGc = forceGc;
+        this.parser = new ClassHistogramParser(searchKeys);
+        this.growthTracker = new ClassGrowthTracker(TREND_WINDOW, minInstanceGrowth);
+    }
+
+    /**
+     * 按持续增长监控类（只统计存活对象，直方图命令自身触发 Full GC）
+     *
+     * @param searchKeys        类名前缀
+     * @param minInstanceGrowth 趋势窗口（最近 10 次采样）内实例数增长下限，低于该值的增长不报告
+     */
+    public static ClassMonitor ofGrowth(Duration checkInterval, String[] searchKeys, long minInstanceGrowth) {
+        return new ClassMonitor(checkInterval, searchKeys, minInstanceGrowth, true);
+    }
+
+    /**
+     * @param forceGc true 只统计存活对象（直方图命令自身触发 Full GC），false 统计堆上所有对象、不触发 GC
+     * @see #ofGrowth(Duration, String[], long)
+     */
+    public static ClassMonitor ofGrowth(Duration checkInterval, String[] searchKeys, long minInstanceGrowth,
+                                        boolean forceGc) {
+        return new ClassMonitor(checkInterval, searchKeys, minInstanceGrowth, forceGc);
+    }
+
+    public synchronized void start() {
+        if (task == null) {
+            // 直方图命令会触发 Full GC，在阻塞检查线程上执行
+            task = MonitorRegistry.getDefault().registerBlocking("ClassMonitor-" + Arrays.asList(searchKeys), checkInterval,
+                    this::checkClasses);
+        }
     }
 
-    public void start() {
-        monitorExecutor.scheduleWithFixedDelay(this::checkClasses, checkInterval.toSeconds(), checkInterval.toSeconds(), TimeUnit.SECONDS);
+    public synchronized void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
     }
 
-    public void stop() {
-        monitorExecutor.shutdown();
+    /**
+     * 最近一次检查得到的持续增长类（字节增长速率降序）
+     */
+    public List<ClassGrowth> getTopGrowers() {
+        return topGrowers;
     }
 
     private void checkClasses() {
         log.debug("checkClasses");
         try {
-            System.gc();
-            try {
-                Thread.sleep(100);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
-            List<String> classHistogram = JCmdInvoker.getClassHistogram();
-            for (String classStat : classHistogram) {
-                Matcher matcher = PATTERN.matcher(classStat);
-                if (!matcher.find()) {
-                    continue;
-                }
-
-                long instanceCount = Long.parseLong(matcher.group(1));
-                if (instanceCount < instanceLimit) {
-                    continue;
-                }
-                long bytes = Long.parseLong(matcher.group(2));
-                String className = matcher.group(3);
-
-                for (String searchKey : searchKeys) {
-                    if (className.contains(searchKey)) {
-                        log.warn("类泄漏: {} - {} instances - {} bytes", className, instanceCount, bytes);
-                    }
+            ClassHistogramParser.Visitor visitor = growthTracker::record;
+            growthTracker.beginSample(System.currentTimeMillis());
+            String histogram = readHistogram();
+            if (histogram != null) {
+                parser.parse(histogram, visitor);
+            } else {
+                for (String line : JCmdInvoker.getClassHistogram()) {
+                    parser.parseLine(line, visitor);
                 }
             }
+            reportGrowers();
         } catch (Exception ex) {
             log.error("Error in checkClasses", ex);
         }
     }
+
+    /**
+     * 进程内获取直方图，DiagnosticCommand MBean 不可用时返回 null，回退到 jcmd 进程
+     */
+    private String readHistogram() {
+        try {
+            return DiagnosticCommandInvoker.getClassHistogram(forceGc);
+        } catch (Exception ex) {
+            log.debug("DiagnosticCommand MBean unavailable, falling back to jcmd", ex);
+            return null;
+        }
+    }
+
+    /**
+     * 按持续增长速率报告，而非绝对实例数：低于阈值的缓慢泄漏同样可见，稳定的大连接池不再反复告警
+     */
+    private void reportGrowers() {
+        List<ClassGrowth> growers = growthTracker.topGrowers(TOP_GROWERS);
+        topGrowers = growers;
+        if (growers.isEmpty()) {
+            return;
+        }
+        log.warn("类泄漏（持续增长 Top {}）:", growers.size());
+        for (int i = 0; i < growers.size(); i++) {
+            log.warn("  #{} {}", i + 1, growers.get(i));
+        }
+    }
 }
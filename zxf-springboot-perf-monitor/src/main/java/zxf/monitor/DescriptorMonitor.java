@@ -11,11 +11,6 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.Duration;
 import java.util.*;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
-
-import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
 
 /**
  * 文件描述符监控 - 通过 MXBean 和 /proc/self/fd/ 双重监控
@@ -24,11 +19,18 @@ import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
  */
 @Slf4j
 public class DescriptorMonitor {
+    private static final int MAX_ENDPOINTS_LOGGED = 20;
     private final Duration checkInterval;
     private final int openLimit;
-    private final ScheduledExecutorService monitorExecutor;
+    private MonitorTask task;
     private final boolean detailedMode;
     private final Set<String> filters;
+    private final DescriptorScanner scanner = new DescriptorScanner();
+    /**
+     * 最近一次检查结果（不加锁，供指标导出读取）
+     */
+    private volatile long openCount = -1;
+    private volatile DescriptorSummary lastSummary;
 
     public DescriptorMonitor(Duration checkInterval, int openLimit) {
         this(checkInterval, openLimit, false, Collections.emptySet());
@@ -43,19 +45,33 @@ public class DescriptorMonitor {
         this.openLimit = openLimit;
         this.detailedMode = detailedMode;
         this.filters = filters != null ? filters : Collections.emptySet();
-        this.monitorExecutor = newSingleThreadScheduledExecutor(r -> {
-            Thread thread = new Thread(r, "DescriptorMonitor");
-            thread.setDaemon(true);
-            return thread;
-        });
     }
 
-    public void start() {
-        monitorExecutor.scheduleWithFixedDelay(this::checkDescriptors, checkInterval.toSeconds(), checkInterval.toSeconds(), TimeUnit.SECONDS);
+    public synchronized void start() {
+        if (task == null) {
+            task = MonitorRegistry.getDefault().register("DescriptorMonitor", checkInterval, this::checkDescriptors);
+        }
+    }
+
+    public synchronized void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    /**
+     * 最近一次检查时 MXBean 报告的打开描述符数（尚未检查或非 Unix 时为 -1）
+     */
+    public long getOpenCount() {
+        return openCount;
     }
 
-    public void stop() {
-        monitorExecutor.shutdown();
+    /**
+     * 最近一次详细扫描的汇总（仅详细模式，尚未扫描时为 null）
+     */
+    public DescriptorSummary getLastSummary() {
+        return lastSummary;
     }
 
     private void checkDescriptors() {
@@ -65,6 +81,7 @@ public class DescriptorMonitor {
         OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
         if (os instanceof UnixOperatingSystemMXBean unix) {
             long count = unix.getOpenFileDescriptorCount();
+            openCount = count;
             if (count > openLimit) {
                 log.warn("文件描述符泄漏: {} / {}", count, openLimit);
             }
@@ -77,36 +94,40 @@ public class DescriptorMonitor {
     }
 
     private void printDetailedInfo(long mxbeanCount) {
-        List<FileDescriptorInfo> descriptors = listOpenFileDescriptors();
+        // 单次流式扫描：普通文件/设备逐个输出（debug）或匹配过滤器时输出，不保留描述符记录
+        DescriptorSummary summary = scanner.scan(target -> {
+            log.debug("  {}", target);
+            for (String filter : filters) {
+                if (target.contains(filter)) {
+                    log.info("匹配过滤器的文件: {}", target);
+                    break;
+                }
+            }
+        });
+        lastSummary = summary;
 
-        log.info("=== 打开的文件描述符 [MXBean:{}, Actual:{}] ===", mxbeanCount, descriptors.size());
+        log.info("=== 打开的文件描述符 [MXBean:{}, Actual:{}] ===", mxbeanCount, summary.total());
 
-        if (descriptors.size() > openLimit) {
-            log.warn("文件描述符数量超过阈值: {} > {}", descriptors.size(), openLimit);
+        if (summary.total() > openLimit) {
+            log.warn("文件描述符数量超过阈值: {} > {}", summary.total(), openLimit);
         }
 
-        // 按类型分组统计
-        Map<FdType, Long> typeStats = descriptors.stream()
-                .collect(Collectors.groupingBy(FileDescriptorInfo::type, Collectors.counting()));
-        log.info("类型统计: {}", typeStats);
-
-        // 显示非标准文件描述符
-        descriptors.stream()
-                .filter(fd -> fd.type() != FdType.ANON_INODE && fd.type() != FdType.PIPE && fd.type() != FdType.SOCKET)
-                .forEach(fd -> log.info("  {}", fd));
-
-        // 检查是否有匹配过滤器的文件
-        if (!filters.isEmpty()) {
-            List<FileDescriptorInfo> matched = descriptors.stream()
-                    .filter(fd -> filters.stream().anyMatch(filter -> fd.target().contains(filter)))
-                    .toList();
-            if (!matched.isEmpty()) {
-                log.info("匹配过滤器的文件:");
-                matched.forEach(fd -> log.info("  {}", fd.target()));
-            }
+        log.info("类型统计: {}", summary.typeStats());
+
+        // 套接字按远端地址与 TCP 状态统计（仅本进程持有的套接字；TIME_WAIT 已无 fd，不在此列）
+        if (!summary.sockets().isEmpty() || summary.otherSockets() > 0) {
+            log.info("套接字远端统计 (非 TCP 套接字: {}):", summary.otherSockets());
+            summary.sockets().stream().limit(MAX_ENDPOINTS_LOGGED).forEach(endpoint -> log.info("  {}", endpoint));
         }
     }
 
+    /**
+     * 流式扫描当前进程打开的文件描述符，返回计数汇总（不生成逐条记录）
+     */
+    public static DescriptorSummary scanOpenFileDescriptors() {
+        return new DescriptorScanner().scan(null);
+    }
+
     /**
      * 列出当前进程打开的所有文件描述符
      */
@@ -144,19 +165,7 @@ public class DescriptorMonitor {
          * 获取文件描述符类型
          */
         public FdType type() {
-            if (target.startsWith("socket:")) {
-                return FdType.SOCKET;
-            } else if (target.startsWith("pipe:")) {
-                return FdType.PIPE;
-            } else if (target.startsWith("anon_inode:")) {
-                return FdType.ANON_INODE;
-            } else if (target.startsWith("/dev/")) {
-                return FdType.DEVICE;
-            } else if (target.startsWith("/")) {
-                return FdType.FILE;
-            } else {
-                return FdType.OTHER;
-            }
+            return FdType.of(target);
         }
 
         @Override
@@ -165,6 +174,61 @@ public class DescriptorMonitor {
         }
     }
 
+    /**
+     * 文件描述符汇总
+     *
+     * @param total        描述符总数
+     * @param typeCounts   按 {@link FdType} 序号计数
+     * @param otherSockets 未出现在 /proc/net/tcp* 中的套接字（unix、udp 等）
+     * @param sockets      TCP 套接字按远端地址聚合，数量降序
+     */
+    public record DescriptorSummary(int total, int[] typeCounts, int otherSockets, List<SocketEndpointStats> sockets) {
+        public int count(FdType type) {
+            return typeCounts[type.ordinal()];
+        }
+
+        public Map<FdType, Integer> typeStats() {
+            Map<FdType, Integer> stats = new EnumMap<>(FdType.class);
+            for (FdType type : FdType.values()) {
+                if (typeCounts[type.ordinal()] > 0) {
+                    stats.put(type, typeCounts[type.ordinal()]);
+                }
+            }
+            return stats;
+        }
+    }
+
+    /**
+     * 单个远端地址的 TCP 套接字统计
+     *
+     * @param endpoint    远端地址:端口
+     * @param stateCounts 按 {@link TcpState} 序号计数
+     */
+    public record SocketEndpointStats(String endpoint, int[] stateCounts) {
+        public int count(TcpState state) {
+            return stateCounts[state.ordinal()];
+        }
+
+        public int total() {
+            int total = 0;
+            for (int count : stateCounts) {
+                total += count;
+            }
+            return total;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder result = new StringBuilder(endpoint).append(" total=").append(total());
+            for (TcpState state : TcpState.values()) {
+                if (stateCounts[state.ordinal()] > 0) {
+                    result.append(", ").append(state).append('=').append(stateCounts[state.ordinal()]);
+                }
+            }
+            return result.toString();
+        }
+    }
+
     /**
      * 文件描述符类型枚举
      */
@@ -174,6 +238,25 @@ public class DescriptorMonitor {
         PIPE,       // 管道
         ANON_INODE, // 匿名inode（如epoll）
         DEVICE,     // 设备文件
-        OTHER       // 其他类型
+        OTHER;      // 其他类型
+
+        /**
+         * 按链接目标判断类型
+         */
+        public static FdType of(String target) {
+            if (target.startsWith("socket:")) {
+                return SOCKET;
+            } else if (target.startsWith("pipe:")) {
+                return PIPE;
+            } else if (target.startsWith("anon_inode:")) {
+                return ANON_INODE;
+            } else if (target.startsWith("/dev/")) {
+                return DEVICE;
+            } else if (target.startsWith("/")) {
+                return FILE;
+            } else {
+                return OTHER;
+            }
+        }
     }
 }
@@ -0,0 +1,109 @@
+package zxf.monitor;
+
+import zxf.util.LongHashSet;
+import zxf.util.ProcNetTcpParser;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * 文件描述符流式扫描 - 单次遍历 /proc/self/fd 只做计数，套接字 inode 收集到基本类型集合，
+ * 再与 /proc/net/tcp、/proc/net/tcp6 关联，按远端地址与 TCP 状态聚合
+ */
+class DescriptorScanner {
+    private static final Path FD_DIR = Path.of("/proc/self/fd");
+    private static final String SOCKET_PREFIX = "socket:[";
+
+    private final ProcNetTcpParser tcpParser = new ProcNetTcpParser();
+    private final LongHashSet socketInodes = new LongHashSet(1024);
+
+    /**
+     * 扫描当前进程打开的文件描述符
+     *
+     * @param targetConsumer 非套接字/管道/匿名 inode 的目标（普通文件、设备等），可为 null
+     */
+    DescriptorMonitor.DescriptorSummary scan(Consumer<String> targetConsumer) {
+        int[] typeCounts = new int[DescriptorMonitor.FdType.values().length];
+        int total = 0;
+        socketInodes.clear();
+        if (!Files.isDirectory(FD_DIR)) {
+            return new DescriptorMonitor.DescriptorSummary(0, typeCounts, 0, List.of());
+        }
+
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(FD_DIR)) {
+            for (Path fdPath : stream) {
+                String target;
+                try {
+                    target = Files.readSymbolicLink(fdPath).toString();
+                } catch (IOException e) {
+                    // 描述符在遍历期间已关闭
+                    continue;
+                }
+                DescriptorMonitor.FdType type = DescriptorMonitor.FdType.of(target);
+                typeCounts[type.ordinal()]++;
+                total++;
+                if (type == DescriptorMonitor.FdType.SOCKET) {
+                    long inode = parseSocketInode(target);
+                    if (inode > 0) {
+                        socketInodes.add(inode);
+                    }
+                } else if (targetConsumer != null && type != DescriptorMonitor.FdType.PIPE
+                        && type != DescriptorMonitor.FdType.ANON_INODE) {
+                    targetConsumer.accept(target);
+                }
+            }
+        } catch (IOException e) {
+            // 静默处理 - 可能不是 Linux 系统
+        }
+
+        Map<Endpoint, int[]> endpoints = new HashMap<>();
+        int[] resolved = new int[1];
+        ProcNetTcpParser.Visitor visitor = (ipv6, high, low, remotePort, localPort, state, inode) -> {
+            if (inode != 0 && socketInodes.contains(inode)) {
+                endpoints.computeIfAbsent(new Endpoint(ipv6, high, low, remotePort),
+                        k -> new int[TcpState.values().length])[TcpState.of(state).ordinal()]++;
+                resolved[0]++;
+            }
+        };
+        try {
+            tcpParser.parse(ProcNetTcpParser.TCP, false, visitor);
+            tcpParser.parse(ProcNetTcpParser.TCP6, true, visitor);
+        } catch (IOException e) {
+            // /proc/net 不可读时只输出计数
+        }
+
+        List<DescriptorMonitor.SocketEndpointStats> sockets = new ArrayList<>(endpoints.size());
+        endpoints.forEach((endpoint, counts) -> sockets.add(new DescriptorMonitor.SocketEndpointStats(endpoint.format(), counts)));
+        sockets.sort(Comparator.comparingInt(DescriptorMonitor.SocketEndpointStats::total).reversed());
+        return new DescriptorMonitor.DescriptorSummary(total, typeCounts, socketInodes.size() - resolved[0], sockets);
+    }
+
+    /**
+     * 解析 "socket:[12345]" 中的 inode
+     */
+    private static long parseSocketInode(String target) {
+        if (!target.startsWith(SOCKET_PREFIX)) {
+            return 0;
+        }
+        long inode = 0;
+        for (int i = SOCKET_PREFIX.length(); i < target.length(); i++) {
+            char c = target.charAt(i);
+            if (c < '0' || c > '9') {
+                break;
+            }
+            inode = inode * 10 + (c - '0');
+        }
+        return inode;
+    }
+
+    private record Endpoint(boolean ipv6, long high, long low, int port) {
+        String format() {
+            String address = ProcNetTcpParser.formatAddress(ipv6, high, low);
+            return address.indexOf(':') >= 0 ? "[" + address + "]:" + port : address + ":" + port;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package zxf.monitor;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+
+/**
+ * 监控注册表 - JVM 内所有监控器（线程/类/文件描述符/TCP 状态/对象）共用调度线程，
+ * 统一记录各检查耗时、按预算退避，并可在一处启停全部监控。
+ * 会阻塞的检查（触发 GC、类直方图）单独使用一个线程，不拖延事件分发等轻量检查
+ */
+@Slf4j
+public final class MonitorRegistry {
+    private static final MonitorRegistry DEFAULT = new MonitorRegistry();
+    /**
+     * 默认单次耗时预算为间隔的 1/10
+     */
+    private static final int DEFAULT_BUDGET_DIVISOR = 10;
+
+    private final ScheduledThreadPoolExecutor executor;
+    private final ScheduledThreadPoolExecutor blockingExecutor;
+    private final Set<MonitorTask> tasks = ConcurrentHashMap.newKeySet();
+    private volatile boolean running = true;
+
+    private MonitorRegistry() {
+        this.executor = newExecutor("MonitorRegistry");
+        this.blockingExecutor = newExecutor("MonitorRegistry-blocking");
+    }
+
+    private static ScheduledThreadPoolExecutor newExecutor(String threadName) {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread thread = new Thread(r, threadName);
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
+
+    public static MonitorRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * 注册周期检查，预算默认为间隔的 1/10
+     */
+    public MonitorTask register(String name, Duration interval, Runnable check) {
+        return register(name, interval, interval.dividedBy(DEFAULT_BUDGET_DIVISOR), check);
+    }
+
+    /**
+     * 注册周期检查
+     *
+     * @param interval 检查间隔（首次执行同样延迟一个间隔）
+     * @param budget   单次耗时预算，超出后下次间隔按 2 倍递增退避（最多 8 倍），恢复后重置
+     */
+    public MonitorTask register(String name, Duration interval, Duration budget, Runnable check) {
+        return register(name, interval, budget, check, executor);
+    }
+
+    /**
+     * 注册会阻塞的周期检查（如 System.gc 后等待、类直方图触发 Full GC），在独立线程上执行；预算默认为间隔的 1/10
+     */
+    public MonitorTask registerBlocking(String name, Duration interval, Runnable check) {
+        return register(name, interval, interval.dividedBy(DEFAULT_BUDGET_DIVISOR), check, blockingExecutor);
+    }
+
+    private MonitorTask register(String name, Duration interval, Duration budget, Runnable check,
+                                 ScheduledThreadPoolExecutor taskExecutor) {
+        if (interval.isZero() || interval.isNegative()) {
+            throw new IllegalArgumentException("interval must be positive: " + name);
+        }
+        MonitorTask task = new MonitorTask(this, name, interval, budget, check, taskExecutor);
+        tasks.add(task);
+        if (running) {
+            task.schedule();
+        }
+        return task;
+    }
+
+    /**
+     * 恢复全部监控
+     */
+    public void startAll() {
+        running = true;
+        tasks.forEach(MonitorTask::schedule);
+        log.info("监控已全部启动 ({} 个任务)", tasks.size());
+    }
+
+    /**
+     * 暂停全部监控（任务保留，可再次 startAll）
+     */
+    public void stopAll() {
+        running = false;
+        tasks.forEach(MonitorTask::unschedule);
+        log.info("监控已全部停止 ({} 个任务)", tasks.size());
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * 各任务运行统计
+     */
+    public List<MonitorTaskStats> getTaskStats() {
+        return tasks.stream().map(MonitorTask::getStats).toList();
+    }
+
+    void remove(MonitorTask task) {
+        tasks.remove(task);
+    }
+}
@@ -0,0 +1,112 @@
+package zxf.monitor;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 注册到 {@link MonitorRegistry} 的周期检查任务：带抖动的固定间隔调度，记录每次耗时，超出预算时指数退避
+ */
+@Slf4j
+public final class MonitorTask {
+    private static final int MAX_BACKOFF = 8;
+    private static final double JITTER = 0.1;
+
+    private final MonitorRegistry registry;
+    private final String name;
+    private final Duration interval;
+    private final long budgetNanos;
+    private final Runnable check;
+    private final ScheduledExecutorService executor;
+
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong overruns = new AtomicLong();
+    private volatile long lastDurationNanos;
+    private volatile long maxDurationNanos;
+    private volatile int backoff = 1;
+    private volatile boolean cancelled;
+    private ScheduledFuture<?> future;
+
+    MonitorTask(MonitorRegistry registry, String name, Duration interval, Duration budget, Runnable check,
+                ScheduledExecutorService executor) {
+        this.registry = registry;
+        this.name = name;
+        this.interval = interval;
+        this.budgetNanos = budget.toNanos();
+        this.check = check;
+        this.executor = executor;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 取消任务并从注册表移除
+     */
+    public void cancel() {
+        cancelled = true;
+        unschedule();
+        registry.remove(this);
+    }
+
+    /**
+     * 当前统计快照
+     */
+    public MonitorTaskStats getStats() {
+        return new MonitorTaskStats(name, interval, Duration.ofNanos(budgetNanos), runs.get(), overruns.get(),
+                Duration.ofNanos(lastDurationNanos), Duration.ofNanos(maxDurationNanos), backoff);
+    }
+
+    synchronized void schedule() {
+        if (cancelled || future != null) {
+            return;
+        }
+        // 下次执行延迟 = 间隔 × 退避倍数 ± 10% 抖动，避免多个监控器在同一时刻唤醒
+        long delayNanos = interval.toNanos() * backoff;
+        delayNanos += (long) (delayNanos * JITTER * (ThreadLocalRandom.current().nextDouble() * 2 - 1));
+        future = executor.schedule(this::run, delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    synchronized void unschedule() {
+        if (future != null) {
+            future.cancel(false);
+            future = null;
+        }
+    }
+
+    private void run() {
+        synchronized (this) {
+            if (cancelled || future == null) {
+                return;
+            }
+            future = null;
+        }
+        long start = System.nanoTime();
+        try {
+            check.run();
+        } catch (Throwable ex) {
+            log.error("Error in monitor task {}", name, ex);
+        }
+        long duration = System.nanoTime() - start;
+        runs.incrementAndGet();
+        lastDurationNanos = duration;
+        maxDurationNanos = Math.max(maxDurationNanos, duration);
+        if (duration > budgetNanos) {
+            overruns.incrementAndGet();
+            backoff = Math.min(backoff * 2, MAX_BACKOFF);
+            log.warn("监控任务 {} 耗时 {}ms 超出预算 {}ms，下次间隔退避为 {} 倍", name,
+                    TimeUnit.NANOSECONDS.toMillis(duration), TimeUnit.NANOSECONDS.toMillis(budgetNanos), backoff);
+        } else {
+            backoff = 1;
+        }
+        if (registry.isRunning()) {
+            schedule();
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package zxf.monitor;
+
+import java.time.Duration;
+
+/**
+ * 监控任务运行统计
+ *
+ * @param name         任务名
+ * @param interval     配置间隔
+ * @param budget       单次耗时预算
+ * @param runs         执行次数
+ * @param overruns     超出预算次数
+ * @param lastDuration 最近一次耗时
+ * @param maxDuration  最大耗时
+ * @param backoff      当前退避倍数
+ */
+public record MonitorTaskStats(String name, Duration interval, Duration budget, long runs, long overruns,
+                               Duration lastDuration, Duration maxDuration, int backoff) {
+}
@@ -0,0 +1,19 @@
+package zxf.monitor;
+
+import java.util.List;
+
+/**
+ * 按固定位置归并的虚拟线程固定（pinning）统计
+ *
+ * @param site        固定位置（跳过 JDK 内部帧后的第一帧）
+ * @param stack       栈顶若干帧
+ * @param count       累计次数
+ * @param totalMillis 累计固定时长（毫秒）
+ * @param maxMillis   单次最长固定时长（毫秒）
+ */
+public record PinnedSiteStats(String site, List<String> stack, long count, double totalMillis, double maxMillis) {
+    @Override
+    public String toString() {
+        return String.format("%s: %d 次, 累计 %.1fms, 最长 %.1fms", site, count, totalMillis, maxMillis);
+    }
+}
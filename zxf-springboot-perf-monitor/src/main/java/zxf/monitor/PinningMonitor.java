@@ -0,0 +1,170 @@
+package zxf.monitor;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 虚拟线程固定监控 - 以 JFR 事件流订阅 jdk.VirtualThreadPinned（虚拟线程在 synchronized 块或本地方法内阻塞，
+ * 占住载体线程），按固定位置归并次数与时长，定期输出增长最多的位置
+ */
+@Slf4j
+public class PinningMonitor {
+    private static final String EVENT_NAME = "jdk.VirtualThreadPinned";
+    /**
+     * 定位固定位置时跳过的 JDK 内部帧（阻塞原语本身）
+     */
+    private static final String[] SKIPPED_PREFIXES = {"java.lang.VirtualThread", "java.lang.Thread", "java.lang.Object",
+            "java.util.concurrent.locks.", "jdk.internal."};
+    private static final int TOP_SITES = 5;
+
+    private final Duration reportInterval;
+    private final Duration threshold;
+    private final int stackDepth;
+    private final ConcurrentMap<String, SiteAccumulator> sites = new ConcurrentHashMap<>();
+    private final LongAdder pinnedCount = new LongAdder();
+    private long reportedCount;
+    private RecordingStream stream;
+    private MonitorTask task;
+
+    public PinningMonitor(Duration reportInterval) {
+        this(reportInterval, Duration.ofMillis(20), 8);
+    }
+
+    /**
+     * @param threshold  只记录固定时长不小于该值的事件（JFR 默认 20ms）
+     * @param stackDepth 每个事件保留的栈顶帧数
+     */
+    public PinningMonitor(Duration reportInterval, Duration threshold, int stackDepth) {
+        this.reportInterval = reportInterval;
+        this.threshold = threshold;
+        this.stackDepth = stackDepth;
+    }
+
+    public synchronized void start() {
+        if (stream != null) {
+            return;
+        }
+        stream = new RecordingStream();
+        stream.enable(EVENT_NAME).withThreshold(threshold).withStackTrace();
+        stream.onEvent(EVENT_NAME, this::onPinned);
+        stream.startAsync();
+        task = MonitorRegistry.getDefault().register("PinningMonitor", reportInterval, this::report);
+    }
+
+    public synchronized void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        if (stream != null) {
+            stream.close();
+            stream = null;
+        }
+    }
+
+    /**
+     * 累计固定次数
+     */
+    public long getPinnedCount() {
+        return pinnedCount.sum();
+    }
+
+    /**
+     * 各固定位置统计（按次数降序）
+     */
+    public List<PinnedSiteStats> getSiteStats() {
+        List<PinnedSiteStats> stats = new ArrayList<>(sites.size());
+        for (SiteAccumulator accumulator : sites.values()) {
+            stats.add(accumulator.snapshot());
+        }
+        stats.sort(Comparator.comparingLong(PinnedSiteStats::count).reversed());
+        return stats;
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinnedCount.increment();
+        List<String> stack = new ArrayList<>(stackDepth);
+        String site = null;
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        if (stackTrace != null) {
+            for (RecordedFrame frame : stackTrace.getFrames()) {
+                if (!frame.isJavaFrame()) {
+                    continue;
+                }
+                String className = frame.getMethod().getType().getName();
+                String element = className + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+                if (site == null && !skipped(className)) {
+                    site = element;
+                }
+                if (stack.size() < stackDepth) {
+                    stack.add(element);
+                } else if (site != null) {
+                    break;
+                }
+            }
+        }
+        String key = site != null ? site : "<unknown>";
+        sites.computeIfAbsent(key, k -> new SiteAccumulator(k, List.copyOf(stack)))
+                .record(event.getDuration().toNanos());
+    }
+
+    private void report() {
+        long total = pinnedCount.sum();
+        if (total == reportedCount) {
+            return;
+        }
+        log.warn("虚拟线程固定: 本周期 {} 次, 累计 {} 次", total - reportedCount, total);
+        reportedCount = total;
+        List<PinnedSiteStats> stats = getSiteStats();
+        for (PinnedSiteStats site : stats.subList(0, Math.min(TOP_SITES, stats.size()))) {
+            log.warn("  固定位置 {}", site);
+            if (log.isDebugEnabled()) {
+                log.debug("    栈: {}", site.stack());
+            }
+        }
+    }
+
+    private static boolean skipped(String className) {
+        for (String prefix : SKIPPED_PREFIXES) {
+            if (className.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class SiteAccumulator {
+        final String site;
+        final List<String> stack;
+        final LongAdder count = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final AtomicLong maxNanos = new AtomicLong();
+
+        SiteAccumulator(String site, List<String> stack) {
+            this.site = site;
+            this.stack = stack;
+        }
+
+        void record(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        PinnedSiteStats snapshot() {
+            return new PinnedSiteStats(site, stack, count.sum(), totalNanos.sum() / 1e6, maxNanos.get() / 1e6);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package zxf.monitor;
+
+/**
+ * TCP 连接状态（与内核 /proc/net/tcp 中 st 列的编码一致）
+ */
+public enum TcpState {
+    UNKNOWN,
+    ESTABLISHED,
+    SYN_SENT,
+    SYN_RECV,
+    FIN_WAIT1,
+    FIN_WAIT2,
+    TIME_WAIT,
+    CLOSE,
+    CLOSE_WAIT,
+    LAST_ACK,
+    LISTEN,
+    CLOSING;
+
+    private static final TcpState[] VALUES = values();
+
+    /**
+     * 按内核编码获取状态，越界返回 UNKNOWN
+     */
+    public static TcpState of(int code) {
+        return code > 0 && code < VALUES.length ? VALUES[code] : UNKNOWN;
+    }
+}
@@ -0,0 +1,231 @@
+package zxf.monitor;
+
+import lombok.extern.slf4j.Slf4j;
+import zxf.util.ProcNetTcpParser;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * TCP 状态采样 - 周期解析 /proc/net/tcp*（含不再持有 fd 的 TIME_WAIT），按状态与关注的远端端口计数，
+ * 保留最近 window 次采样的时间序列，用于关联连接池配置与临时端口耗尽
+ */
+@Slf4j
+public class TcpStateMonitor {
+    private static final int DEFAULT_WINDOW = 60;
+    private static final Path LOCAL_PORT_RANGE = Path.of("/proc/sys/net/ipv4/ip_local_port_range");
+    private static final int STATES = TcpState.values().length;
+
+    private final Duration checkInterval;
+    private final int[] remotePorts;
+    private final int window;
+    private final int ephemeralLow;
+    private final int ephemeralHigh;
+    private final ProcNetTcpParser parser = new ProcNetTcpParser();
+    private MonitorTask task;
+
+    /**
+     * 远端端口 -> 关注端口下标（-1 表示不关注）
+     */
+    private final short[] portIndex = new short[65536];
+    /**
+     * 时间序列（环形）：采样时间、各状态总数、关注端口各状态数、临时端口占用数
+     */
+    private final long[] sampleTimes;
+    private final int[] stateTotals;
+    private final int[] portStateCounts;
+    private final int[] ephemeralInUse;
+    private long sampleCount;
+    private volatile TcpStateSample latestSample;
+    private TcpStateSample lastLogged;
+
+    public TcpStateMonitor(Duration checkInterval, int[] remotePorts) {
+        this(checkInterval, remotePorts, DEFAULT_WINDOW);
+    }
+
+    /**
+     * @param remotePorts 关注的远端端口（如 mock 的 8089）
+     * @param window      保留的采样数
+     */
+    public TcpStateMonitor(Duration checkInterval, int[] remotePorts, int window) {
+        this.checkInterval = checkInterval;
+        this.remotePorts = remotePorts.clone();
+        this.window = window;
+        Arrays.fill(portIndex, (short) -1);
+        for (int i = 0; i < remotePorts.length; i++) {
+            if (remotePorts[i] < 0 || remotePorts[i] >= portIndex.length) {
+                throw new IllegalArgumentException("remote port out of range 0..65535: " + remotePorts[i]);
+            }
+            portIndex[remotePorts[i]] = (short) i;
+        }
+        this.sampleTimes = new long[window];
+        this.stateTotals = new int[window * STATES];
+        this.portStateCounts = new int[window * remotePorts.length * STATES];
+        this.ephemeralInUse = new int[window];
+        int[] range = readLocalPortRange();
+        this.ephemeralLow = range[0];
+        this.ephemeralHigh = range[1];
+    }
+
+    public synchronized void start() {
+        if (task == null) {
+            task = MonitorRegistry.getDefault().register("TcpStateMonitor", checkInterval, this::checkTcpStates);
+        }
+    }
+
+    public synchronized void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    /**
+     * 采样一次并记录到时间序列
+     */
+    public synchronized TcpStateSample sample() throws IOException {
+        int slot = (int) (sampleCount % window);
+        int stateBase = slot * STATES;
+        int portBase = slot * remotePorts.length * STATES;
+        Arrays.fill(stateTotals, stateBase, stateBase + STATES, 0);
+        Arrays.fill(portStateCounts, portBase, portBase + remotePorts.length * STATES, 0);
+        ephemeralInUse[slot] = 0;
+
+        ProcNetTcpParser.Visitor visitor = (ipv6, high, low, remotePort, localPort, state, inode) -> {
+            int stateOrdinal = TcpState.of(state).ordinal();
+            stateTotals[stateBase + stateOrdinal]++;
+            int index = portIndex[remotePort];
+            if (index >= 0) {
+                portStateCounts[portBase + index * STATES + stateOrdinal]++;
+            }
+            if (state != TcpState.LISTEN.ordinal() && localPort >= ephemeralLow && localPort <= ephemeralHigh) {
+                ephemeralInUse[slot]++;
+            }
+        };
+        parser.parse(ProcNetTcpParser.TCP, false, visitor);
+        parser.parse(ProcNetTcpParser.TCP6, true, visitor);
+        sampleTimes[slot] = System.currentTimeMillis();
+        sampleCount++;
+        TcpStateSample sample = toSample(slot);
+        latestSample = sample;
+        return sample;
+    }
+
+    /**
+     * 最近一次采样（不加锁，供指标导出读取；尚未采样时为 null）
+     */
+    public TcpStateSample getLatestSample() {
+        return latestSample;
+    }
+
+    /**
+     * 最近 window 次采样，按时间升序
+     */
+    public synchronized List<TcpStateSample> getSeries() {
+        int samples = (int) Math.min(sampleCount, window);
+        List<TcpStateSample> series = new ArrayList<>(samples);
+        for (long i = sampleCount - samples; i < sampleCount; i++) {
+            series.add(toSample((int) (i % window)));
+        }
+        return series;
+    }
+
+    private TcpStateSample toSample(int slot) {
+        int[][] byPort = new int[remotePorts.length][];
+        for (int i = 0; i < remotePorts.length; i++) {
+            int from = (slot * remotePorts.length + i) * STATES;
+            byPort[i] = Arrays.copyOfRange(portStateCounts, from, from + STATES);
+        }
+        return new TcpStateSample(sampleTimes[slot], Arrays.copyOfRange(stateTotals, slot * STATES, (slot + 1) * STATES),
+                remotePorts.clone(), byPort, ephemeralInUse[slot], ephemeralHigh - ephemeralLow + 1);
+    }
+
+    private void checkTcpStates() {
+        log.debug("checkTcpStates");
+        try {
+            TcpStateSample sample = sample();
+            // 每个周期都输出会刷屏：计数变化时输出 info，未变化只输出 debug
+            if (lastLogged == null || !sample.sameCounts(lastLogged)) {
+                log.info("TCP 状态采样: {}", sample);
+                lastLogged = sample;
+            } else {
+                log.debug("TCP 状态采样（无变化）: {}", sample);
+            }
+        } catch (Exception ex) {
+            log.error("Error in checkTcpStates", ex);
+        }
+    }
+
+    private static int[] readLocalPortRange() {
+        try {
+            String[] range = Files.readString(LOCAL_PORT_RANGE).trim().split("\\s+");
+            return new int[]{Integer.parseInt(range[0]), Integer.parseInt(range[1])};
+        } catch (Exception e) {
+            // 非 Linux 或不可读时使用内核默认范围
+            return new int[]{32768, 60999};
+        }
+    }
+
+    /**
+     * 单次采样结果
+     *
+     * @param timestamp       采样时间（毫秒）
+     * @param stateCounts     各状态总数，按 {@link TcpState} 序号
+     * @param remotePorts     关注的远端端口
+     * @param portStateCounts 每个关注端口的各状态数
+     * @param ephemeralInUse  本地端口落在临时端口范围内的连接数
+     * @param ephemeralRange  临时端口范围大小
+     */
+    public record TcpStateSample(long timestamp, int[] stateCounts, int[] remotePorts, int[][] portStateCounts,
+                                 int ephemeralInUse, int ephemeralRange) {
+        public int count(TcpState state) {
+            return stateCounts[state.ordinal()];
+        }
+
+        /**
+         * 各状态计数与临时端口占用是否与另一次采样相同（忽略采样时间）
+         */
+        public boolean sameCounts(TcpStateSample other) {
+            return ephemeralInUse == other.ephemeralInUse && Arrays.equals(stateCounts, other.stateCounts)
+                    && Arrays.equals(remotePorts, other.remotePorts) && Arrays.deepEquals(portStateCounts, other.portStateCounts);
+        }
+
+        public int count(int remotePort, TcpState state) {
+            for (int i = 0; i < remotePorts.length; i++) {
+                if (remotePorts[i] == remotePort) {
+                    return portStateCounts[i][state.ordinal()];
+                }
+            }
+            return 0;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder result = new StringBuilder();
+            appendStates(result, stateCounts);
+            for (int i = 0; i < remotePorts.length; i++) {
+                result.append(" | :").append(remotePorts[i]).append(' ');
+                appendStates(result, portStateCounts[i]);
+            }
+            result.append(" | 临时端口 ").append(ephemeralInUse).append('/').append(ephemeralRange);
+            return result.toString();
+        }
+
+        private static void appendStates(StringBuilder result, int[] counts) {
+            result.append('{');
+            boolean first = true;
+            for (TcpState state : TcpState.values()) {
+                if (counts[state.ordinal()] > 0) {
+                    result.append(first ? "" : ", ").append(state).append('=').append(counts[state.ordinal()]);
+                    first = false;
+                }
+            }
+            result.append('}');
+        }
+    }
+}
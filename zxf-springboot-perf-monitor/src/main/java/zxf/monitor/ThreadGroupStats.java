@@ -0,0 +1,22 @@
+package zxf.monitor;
+
+/**
+ * 按名称模式归组的匹配线程统计（一次检查周期内）
+ *
+ * @param group          名称模式（数字序号归一为 #）
+ * @param count          当前线程数
+ * @param created        本周期新建数
+ * @param died           本周期结束数
+ * @param netPerMinute   净增速率（新建 - 结束）/分钟
+ * @param cpuNanos       本周期组内线程消耗的 CPU 时间（不支持时为 -1）
+ * @param allocatedBytes 本周期组内线程分配的字节数（不支持时为 -1）
+ */
+public record ThreadGroupStats(String group, int count, int created, int died, double netPerMinute,
+                               long cpuNanos, long allocatedBytes) {
+    @Override
+    public String toString() {
+        return String.format("%s: %d 线程, 新建 %d, 结束 %d, 净增 %+.1f/min, CPU %dms, 分配 %dKB",
+                group, count, created, died, netPerMinute,
+                cpuNanos < 0 ? -1 : cpuNanos / 1_000_000, allocatedBytes < 0 ? -1 : allocatedBytes / 1024);
+    }
+}
@@ -1,67 +1,259 @@
 package zxf.monitor;
 
 import lombok.extern.slf4j.Slf4j;
+import zxf.util.KeywordMatcher;
 
 import java.lang.management.ManagementFactory;
 import java.lang.management.ThreadInfo;
 import java.lang.management.ThreadMXBean;
 import java.time.Duration;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
-
-import static java.util.concurrent.Executors.*;
+import java.util.*;
 
 @Slf4j
 public class ThreadMonitor {
+    private static final int DEFAULT_MAX_DEPTH = 16;
+    private static final int SAMPLE_FRAMES = 5;
+    private static final int TREND_WINDOW = 10;
+    private static final KeywordMatcher EXCLUDED_THREADS = new KeywordMatcher("MonitorRegistry", "ObjectMonitor-");
     private final Duration checkInterval;
     private final String[] searchKeys;
     private final int foundLimit;
-    private final ScheduledExecutorService monitorExecutor;
+    private final int maxDepth;
+    private final KeywordMatcher matcher;
+    private MonitorTask task;
+
+    /**
+     * 上一次检查的匹配线程：线程 id -> 所属组 / 累计 CPU 与分配量
+     */
+    private Map<Long, ThreadSample> previousThreads = new HashMap<>();
+    private long previousCheckNanos;
+    /**
+     * 匹配线程数时间序列（环形）
+     */
+    private final int[] matchedCounts = new int[TREND_WINDOW];
+    private final long[] matchedTimes = new long[TREND_WINDOW];
+    private long sampleCount;
+    private volatile List<ThreadGroupStats> groupStats = List.of();
+    private volatile int matchedCount;
 
     public ThreadMonitor(Duration checkInterval, String[] searchKeys, int foundLimit) {
+        this(checkInterval, searchKeys, foundLimit, DEFAULT_MAX_DEPTH);
+    }
+
+    /**
+     * @param searchKeys 在线程名与栈帧类名/方法名中查找的关键字
+     * @param maxDepth   每个线程最多采集的栈帧数
+     */
+    public ThreadMonitor(Duration checkInterval, String[] searchKeys, int foundLimit, int maxDepth) {
         this.checkInterval = checkInterval;
         this.searchKeys = searchKeys;
         this.foundLimit = foundLimit;
-        this.monitorExecutor = newSingleThreadScheduledExecutor(r -> {
-            Thread thread = new Thread(r, "ThreadMonitor-" + Arrays.asList(searchKeys));
-            thread.setDaemon(true);
-            return thread;
-        });
+        this.maxDepth = maxDepth;
+        this.matcher = new KeywordMatcher(searchKeys);
     }
 
-    public void start() {
-        monitorExecutor.scheduleWithFixedDelay(this::checkThreads, checkInterval.toSeconds(), checkInterval.toSeconds(), TimeUnit.SECONDS);
+    public synchronized void start() {
+        if (task == null) {
+            task = MonitorRegistry.getDefault().register("ThreadMonitor-" + Arrays.asList(searchKeys), checkInterval, this::checkThreads);
+        }
     }
 
-    public void stop() {
-        monitorExecutor.shutdown();
+    public synchronized void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    /**
+     * 最近一次检查的分组统计（按线程数降序）
+     */
+    public List<ThreadGroupStats> getGroupStats() {
+        return groupStats;
+    }
+
+    /**
+     * 最近一次检查的匹配线程数
+     */
+    public int getMatchedCount() {
+        return matchedCount;
     }
 
     private void checkThreads() {
         log.debug("checkThreads");
         ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
-        ThreadInfo[] threads = threadBean.dumpAllThreads(false, false);
+        // 只采集栈顶 maxDepth 帧，不采集锁信息
+        ThreadInfo[] threads = threadBean.getThreadInfo(threadBean.getAllThreadIds(), maxDepth);
 
-        int totalCount = threads.length;
+        int totalCount = 0;
         List<ThreadInfo> foundThreads = new ArrayList<>();
         for (ThreadInfo thread : threads) {
-            String threadInfo = thread + " - " + Arrays.asList(thread.getStackTrace());
-            for (String searchKey : searchKeys) {
-                if (!threadInfo.contains("ThreadMonitor-") && !threadInfo.contains("ClassMonitor-")
-                        && threadInfo.contains(searchKey)) {
-                    foundThreads.add(thread);
-                    break;
-                }
+            // 线程在获取 id 与采集信息之间已结束
+            if (thread == null) {
+                continue;
+            }
+            totalCount++;
+            if (matches(thread)) {
+                foundThreads.add(thread);
             }
         }
+
+        long now = System.nanoTime();
+        List<ThreadGroupStats> stats = group(threadBean, foundThreads, now);
+        double trend = recordCount(foundThreads.size(), now);
+        groupStats = stats;
+        matchedCount = foundThreads.size();
+
         if (foundThreads.size() > foundLimit) {
-            log.warn("线程泄漏: {} / {}", foundThreads.size(), totalCount);
-            for (ThreadInfo thread : foundThreads) {
-                log.warn("线程泄漏: {} - {}", thread, Arrays.toString(thread.getStackTrace()));
+            // 只输出分组汇总与每组一个样例栈，不再逐线程输出完整堆栈
+            log.warn("线程泄漏: {} / {}, 近期增长 {}/min", foundThreads.size(), totalCount, String.format("%+.1f", trend));
+            for (ThreadGroupStats group : stats) {
+                log.warn("  线程组 {}", group);
+            }
+        }
+    }
+
+    /**
+     * 按名称模式归组，计算本周期新建/结束数量以及 CPU、分配量增量
+     */
+    private List<ThreadGroupStats> group(ThreadMXBean threadBean, List<ThreadInfo> foundThreads, long now) {
+        long[] ids = new long[foundThreads.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = foundThreads.get(i).getThreadId();
+        }
+        long[] cpuTimes = null;
+        long[] allocatedBytes = null;
+        if (threadBean instanceof com.sun.management.ThreadMXBean sunBean) {
+            if (sunBean.isThreadCpuTimeSupported() && sunBean.isThreadCpuTimeEnabled()) {
+                cpuTimes = sunBean.getThreadCpuTime(ids);
+            }
+            if (sunBean.isThreadAllocatedMemorySupported() && sunBean.isThreadAllocatedMemoryEnabled()) {
+                allocatedBytes = sunBean.getThreadAllocatedBytes(ids);
+            }
+        }
+
+        Map<String, GroupAccumulator> groups = new HashMap<>();
+        Map<Long, ThreadSample> currentThreads = new HashMap<>(foundThreads.size() * 2);
+        for (int i = 0; i < ids.length; i++) {
+            ThreadInfo thread = foundThreads.get(i);
+            ThreadSample previous = previousThreads.remove(ids[i]);
+            String group = previous != null ? previous.group : namePattern(thread.getThreadName());
+            long cpu = cpuTimes != null ? cpuTimes[i] : -1;
+            long allocated = allocatedBytes != null ? allocatedBytes[i] : -1;
+            currentThreads.put(ids[i], new ThreadSample(group, cpu, allocated));
+
+            GroupAccumulator accumulator = groups.computeIfAbsent(group, GroupAccumulator::new);
+            accumulator.count++;
+            if (previous == null) {
+                accumulator.created++;
+                accumulator.sample = thread;
+            }
+            accumulator.cpuNanos += delta(cpu, previous != null ? previous.cpuNanos : 0);
+            accumulator.allocatedBytes += delta(allocated, previous != null ? previous.allocatedBytes : 0);
+            if (accumulator.sample == null) {
+                accumulator.sample = thread;
+            }
+        }
+        // 剩余的上次线程在本次已不存在
+        for (ThreadSample dead : previousThreads.values()) {
+            groups.computeIfAbsent(dead.group, GroupAccumulator::new).died++;
+        }
+
+        double minutes = previousCheckNanos == 0 ? 0 : (now - previousCheckNanos) / 60e9;
+        boolean cpuSupported = cpuTimes != null;
+        boolean allocationSupported = allocatedBytes != null;
+        List<ThreadGroupStats> stats = new ArrayList<>(groups.size());
+        for (GroupAccumulator accumulator : groups.values()) {
+            stats.add(new ThreadGroupStats(accumulator.group, accumulator.count, accumulator.created, accumulator.died,
+                    minutes > 0 ? (accumulator.created - accumulator.died) / minutes : 0,
+                    cpuSupported ? accumulator.cpuNanos : -1, allocationSupported ? accumulator.allocatedBytes : -1));
+            if (log.isDebugEnabled() && accumulator.sample != null) {
+                StackTraceElement[] frames = accumulator.sample.getStackTrace();
+                log.debug("线程组 {} 样例: {} - {}", accumulator.group, accumulator.sample.getThreadName(),
+                        Arrays.toString(Arrays.copyOf(frames, Math.min(SAMPLE_FRAMES, frames.length))));
+            }
+        }
+        stats.sort(Comparator.comparingInt(ThreadGroupStats::count).reversed());
+
+        previousThreads = currentThreads;
+        previousCheckNanos = now;
+        return stats;
+    }
+
+    /**
+     * 记录匹配数量，返回窗口内首尾的增长速率（/分钟）
+     */
+    private double recordCount(int count, long now) {
+        int slot = (int) (sampleCount % TREND_WINDOW);
+        matchedCounts[slot] = count;
+        matchedTimes[slot] = now;
+        sampleCount++;
+        if (sampleCount < 2) {
+            return 0;
+        }
+        int oldest = (int) (sampleCount < TREND_WINDOW ? 0 : sampleCount % TREND_WINDOW);
+        double minutes = (now - matchedTimes[oldest]) / 60e9;
+        return minutes > 0 ? (count - matchedCounts[oldest]) / minutes : 0;
+    }
+
+    /**
+     * 直接在 ThreadInfo 字段上匹配：线程名，以及各栈帧的类名与方法名
+     */
+    private boolean matches(ThreadInfo thread) {
+        String threadName = thread.getThreadName();
+        if (EXCLUDED_THREADS.matches(threadName)) {
+            return false;
+        }
+        if (matcher.matches(threadName)) {
+            return true;
+        }
+        for (StackTraceElement frame : thread.getStackTrace()) {
+            if (matcher.matches(frame.getClassName()) || matcher.matches(frame.getMethodName())) {
+                return true;
             }
         }
+        return false;
+    }
+
+    /**
+     * 线程名中的数字序号归一为 #，如 idle-connection-evictor-12 -> idle-connection-evictor-#
+     */
+    static String namePattern(String threadName) {
+        StringBuilder pattern = new StringBuilder(threadName.length());
+        boolean inDigits = false;
+        for (int i = 0; i < threadName.length(); i++) {
+            char c = threadName.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (!inDigits) {
+                    pattern.append('#');
+                    inDigits = true;
+                }
+            } else {
+                pattern.append(c);
+                inDigits = false;
+            }
+        }
+        return pattern.toString();
+    }
+
+    private static long delta(long current, long previous) {
+        return current < 0 ? 0 : Math.max(0, current - Math.max(0, previous));
+    }
+
+    private record ThreadSample(String group, long cpuNanos, long allocatedBytes) {
+    }
+
+    private static final class GroupAccumulator {
+        final String group;
+        int count;
+        int created;
+        int died;
+        long cpuNanos;
+        long allocatedBytes;
+        ThreadInfo sample;
+
+        GroupAccumulator(String group) {
+            this.group = group;
+        }
     }
 }
@@ -0,0 +1,111 @@
+package zxf.monitor.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import zxf.monitor.*;
+import zxf.monitor.object.ObjectMonitor;
+
+import java.util.List;
+
+/**
+ * Micrometer 绑定（可选依赖 micrometer-core）- 与 {@link MonitorMetrics} 的 MXBean 读取相同的无锁计数器，
+ * 便于与压测吞吐量画在同一张图上
+ *
+ * @author davis
+ */
+public class MonitorMeterBinder implements MeterBinder {
+    /**
+     * 按排名导出的增长最快类数量（类名随时间变化，不作为标签以免指标基数膨胀，类名见 JMX）
+     */
+    private static final int TOP_CLASS_RANKS = 5;
+
+    private final MonitorMetrics metrics;
+
+    public MonitorMeterBinder(MonitorMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Tags appTags = Tags.of("application", metrics.getApplication());
+
+        for (ObjectMonitor<?> monitor : metrics.getObjectMonitors()) {
+            Tags tags = appTags.and("class", monitor.getTargetClass().getName());
+            FunctionCounter.builder("zxf.monitor.objects.created", monitor, ObjectMonitor::getTotalCreated)
+                    .tags(tags).description("已注册对象总数").register(registry);
+            FunctionCounter.builder("zxf.monitor.objects.collected", monitor, ObjectMonitor::getTotalCollected)
+                    .tags(tags).description("已回收对象总数").register(registry);
+            FunctionCounter.builder("zxf.monitor.objects.leak.suspected", monitor, ObjectMonitor::getTotalLeakSuspected)
+                    .tags(tags).description("疑似泄漏对象总数").register(registry);
+            FunctionCounter.builder("zxf.monitor.objects.leak.confirmed", monitor, ObjectMonitor::getTotalLeakConfirmed)
+                    .tags(tags).description("确认泄漏对象总数").register(registry);
+            FunctionCounter.builder("zxf.monitor.objects.events.dropped", monitor, ObjectMonitor::getDroppedEvents)
+                    .tags(tags).description("事件缓冲已满时丢弃的注册事件数").register(registry);
+            FunctionCounter.builder("zxf.monitor.objects.untracked", monitor, ObjectMonitor::getUntrackedCount)
+                    .tags(tags).description("超出跟踪上限后未详细跟踪的对象数").register(registry);
+            Gauge.builder("zxf.monitor.objects.active", monitor, ObjectMonitor::getActiveCount)
+                    .tags(tags).description("当前活跃对象数").register(registry);
+            Gauge.builder("zxf.monitor.objects.age.avg", monitor, ObjectMonitor::getAverageAgeSeconds)
+                    .tags(tags).baseUnit("seconds").register(registry);
+        }
+
+        ThreadMonitor threadMonitor = metrics.getThreadMonitor();
+        if (threadMonitor != null) {
+            Gauge.builder("zxf.monitor.threads.matched", threadMonitor, ThreadMonitor::getMatchedCount)
+                    .tags(appTags).description("匹配关键字的线程数").register(registry);
+            Gauge.builder("zxf.monitor.threads.groups", threadMonitor, m -> m.getGroupStats().size())
+                    .tags(appTags).register(registry);
+        }
+
+        ClassMonitor classMonitor = metrics.getClassMonitor();
+        if (classMonitor != null) {
+            Gauge.builder("zxf.monitor.classes.growing", classMonitor, m -> m.getTopGrowers().size())
+                    .tags(appTags).description("持续增长的类数量").register(registry);
+            for (int i = 0; i < TOP_CLASS_RANKS; i++) {
+                int rank = i;
+                Gauge.builder("zxf.monitor.classes.growth", classMonitor, m -> bytesPerMinute(m.getTopGrowers(), rank))
+                        .tags(appTags.and("rank", String.valueOf(rank + 1))).baseUnit("bytes.per.minute")
+                        .register(registry);
+            }
+        }
+
+        DescriptorMonitor descriptorMonitor = metrics.getDescriptorMonitor();
+        if (descriptorMonitor != null) {
+            Gauge.builder("zxf.monitor.fds.open", descriptorMonitor, DescriptorMonitor::getOpenCount)
+                    .tags(appTags).register(registry);
+            for (DescriptorMonitor.FdType type : DescriptorMonitor.FdType.values()) {
+                Gauge.builder("zxf.monitor.fds", descriptorMonitor, m -> {
+                    DescriptorMonitor.DescriptorSummary summary = m.getLastSummary();
+                    return summary != null ? summary.count(type) : Double.NaN;
+                }).tags(appTags.and("type", type.name())).register(registry);
+            }
+        }
+
+        TcpStateMonitor tcpStateMonitor = metrics.getTcpStateMonitor();
+        if (tcpStateMonitor != null) {
+            for (TcpState state : TcpState.values()) {
+                Gauge.builder("zxf.monitor.tcp.connections", tcpStateMonitor, m -> {
+                    TcpStateMonitor.TcpStateSample sample = m.getLatestSample();
+                    return sample != null ? sample.count(state) : Double.NaN;
+                }).tags(appTags.and("state", state.name())).register(registry);
+            }
+            Gauge.builder("zxf.monitor.tcp.ephemeral.used", tcpStateMonitor, m -> {
+                TcpStateMonitor.TcpStateSample sample = m.getLatestSample();
+                return sample != null ? sample.ephemeralInUse() : Double.NaN;
+            }).tags(appTags).register(registry);
+        }
+
+        PinningMonitor pinningMonitor = metrics.getPinningMonitor();
+        if (pinningMonitor != null) {
+            FunctionCounter.builder("zxf.monitor.virtual.threads.pinned", pinningMonitor, PinningMonitor::getPinnedCount)
+                    .tags(appTags).description("虚拟线程固定载体线程的次数").register(registry);
+        }
+    }
+
+    private static double bytesPerMinute(List<ClassGrowth> growers, int rank) {
+        return rank < growers.size() ? growers.get(rank).bytesPerMinute() : 0.0;
+    }
+}
@@ -0,0 +1,393 @@
+package zxf.monitor.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+import zxf.monitor.*;
+import zxf.monitor.object.ObjectMonitor;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.*;
+
+/**
+ * 监控指标导出面 - 汇集各监控器，以 JMX MXBean 暴露实时计数与量值（Micrometer 见 {@link MonitorMeterBinder}）。
+ * 所有读取都落在监控器的无锁计数器或 volatile 快照上，抓取不会阻塞检查线程或注册热路径
+ *
+ * @author davis
+ */
+@Slf4j
+public class MonitorMetrics {
+    public static final String DOMAIN = "zxf.monitor";
+
+    private final String application;
+    private final List<ObjectMonitor<?>> objectMonitors = new ArrayList<>();
+    private ThreadMonitor threadMonitor;
+    private ClassMonitor classMonitor;
+    private DescriptorMonitor descriptorMonitor;
+    private TcpStateMonitor tcpStateMonitor;
+    private PinningMonitor pinningMonitor;
+    private final List<ObjectName> registeredNames = new ArrayList<>();
+
+    /**
+     * @param application 应用名，作为 ObjectName 的 application 属性与 Micrometer 标签
+     */
+    public MonitorMetrics(String application) {
+        this.application = application;
+    }
+
+    public MonitorMetrics objectMonitor(ObjectMonitor<?> monitor) {
+        objectMonitors.add(monitor);
+        return this;
+    }
+
+    public MonitorMetrics threadMonitor(ThreadMonitor monitor) {
+        this.threadMonitor = monitor;
+        return this;
+    }
+
+    public MonitorMetrics classMonitor(ClassMonitor monitor) {
+        this.classMonitor = monitor;
+        return this;
+    }
+
+    public MonitorMetrics descriptorMonitor(DescriptorMonitor monitor) {
+        this.descriptorMonitor = monitor;
+        return this;
+    }
+
+    public MonitorMetrics tcpStateMonitor(TcpStateMonitor monitor) {
+        this.tcpStateMonitor = monitor;
+        return this;
+    }
+
+    public MonitorMetrics pinningMonitor(PinningMonitor monitor) {
+        this.pinningMonitor = monitor;
+        return this;
+    }
+
+    public String getApplication() {
+        return application;
+    }
+
+    public List<ObjectMonitor<?>> getObjectMonitors() {
+        return Collections.unmodifiableList(objectMonitors);
+    }
+
+    public ThreadMonitor getThreadMonitor() {
+        return threadMonitor;
+    }
+
+    public ClassMonitor getClassMonitor() {
+        return classMonitor;
+    }
+
+    public DescriptorMonitor getDescriptorMonitor() {
+        return descriptorMonitor;
+    }
+
+    public TcpStateMonitor getTcpStateMonitor() {
+        return tcpStateMonitor;
+    }
+
+    public PinningMonitor getPinningMonitor() {
+        return pinningMonitor;
+    }
+
+    /**
+     * 注册到平台 MBeanServer，ObjectName 形如 zxf.monitor:application=http5,type=ObjectMonitor,name=java.io.Closeable
+     */
+    public synchronized void registerMBeans() {
+        for (ObjectMonitor<?> monitor : objectMonitors) {
+            register("ObjectMonitor", monitor.getTargetClass().getName(), new ObjectMonitorView(monitor));
+        }
+        if (threadMonitor != null) {
+            register("ThreadMonitor", "threads", new ThreadMonitorView(threadMonitor));
+        }
+        if (classMonitor != null) {
+            register("ClassMonitor", "classes", new ClassMonitorView(classMonitor));
+        }
+        if (descriptorMonitor != null) {
+            register("DescriptorMonitor", "descriptors", new DescriptorMonitorView(descriptorMonitor));
+        }
+        if (tcpStateMonitor != null) {
+            register("TcpStateMonitor", "tcp", new TcpStateMonitorView(tcpStateMonitor));
+        }
+        if (pinningMonitor != null) {
+            register("PinningMonitor", "virtual-threads", new PinningMonitorView(pinningMonitor));
+        }
+        register("MonitorRegistry", "tasks", new MonitorRegistryView(MonitorRegistry.getDefault()));
+    }
+
+    /**
+     * 注销本实例注册的所有 MBean
+     */
+    public synchronized void unregisterMBeans() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (ObjectName name : registeredNames) {
+            try {
+                if (server.isRegistered(name)) {
+                    server.unregisterMBean(name);
+                }
+            } catch (JMException e) {
+                log.warn("注销 MBean 失败: {}", name, e);
+            }
+        }
+        registeredNames.clear();
+    }
+
+    private void register(String type, String name, Object mbean) {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName objectName = new ObjectName(DOMAIN, new Hashtable<>(Map.of(
+                    "application", ObjectName.quote(application), "type", type, "name", ObjectName.quote(name))));
+            // 同名 MBean 已存在时（如上下文重启）先注销旧实例
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+            server.registerMBean(mbean, objectName);
+            registeredNames.add(objectName);
+        } catch (JMException e) {
+            log.warn("注册 MBean 失败: {}/{}", type, name, e);
+        }
+    }
+
+    public interface ObjectMonitorMXBean {
+        long getActiveCount();
+
+        long getTotalCreated();
+
+        long getTotalCollected();
+
+        long getTotalLeakSuspected();
+
+        long getTotalLeakConfirmed();
+
+        double getAverageAgeSeconds();
+
+        long getDroppedEvents();
+
+        long getUntrackedCount();
+    }
+
+    public interface ThreadMonitorMXBean {
+        int getMatchedCount();
+
+        /**
+         * 线程组 -> 线程数
+         */
+        Map<String, Integer> getGroupCounts();
+    }
+
+    public interface ClassMonitorMXBean {
+        int getGrowingClassCount();
+
+        /**
+         * 类名 -> 每分钟字节增长（按增长速率降序）
+         */
+        Map<String, Double> getTopGrowerBytesPerMinute();
+    }
+
+    public interface DescriptorMonitorMXBean {
+        long getOpenCount();
+
+        /**
+         * 描述符类型 -> 数量（仅详细模式）
+         */
+        Map<String, Integer> getTypeCounts();
+    }
+
+    public interface TcpStateMonitorMXBean {
+        /**
+         * TCP 状态 -> 连接数
+         */
+        Map<String, Integer> getStateCounts();
+
+        int getEphemeralInUse();
+
+        int getEphemeralRange();
+    }
+
+    public interface PinningMonitorMXBean {
+        long getPinnedCount();
+
+        /**
+         * 固定位置 -> 次数（按次数降序）
+         */
+        Map<String, Long> getSiteCounts();
+    }
+
+    public interface MonitorRegistryMXBean {
+        boolean isRunning();
+
+        /**
+         * 任务名 -> 最近一次耗时（毫秒）
+         */
+        Map<String, Double> getLastDurationMillis();
+
+        /**
+         * 任务名 -> 超出预算次数
+         */
+        Map<String, Long> getOverruns();
+    }
+
+    private record ObjectMonitorView(ObjectMonitor<?> monitor) implements ObjectMonitorMXBean {
+        @Override
+        public long getActiveCount() {
+            return monitor.getActiveCount();
+        }
+
+        @Override
+        public long getTotalCreated() {
+            return monitor.getTotalCreated();
+        }
+
+        @Override
+        public long getTotalCollected() {
+            return monitor.getTotalCollected();
+        }
+
+        @Override
+        public long getTotalLeakSuspected() {
+            return monitor.getTotalLeakSuspected();
+        }
+
+        @Override
+        public long getTotalLeakConfirmed() {
+            return monitor.getTotalLeakConfirmed();
+        }
+
+        @Override
+        public double getAverageAgeSeconds() {
+            return monitor.getAverageAgeSeconds();
+        }
+
+        @Override
+        public long getDroppedEvents() {
+            return monitor.getDroppedEvents();
+        }
+
+        @Override
+        public long getUntrackedCount() {
+            return monitor.getUntrackedCount();
+        }
+    }
+
+    private record ThreadMonitorView(ThreadMonitor monitor) implements ThreadMonitorMXBean {
+        @Override
+        public int getMatchedCount() {
+            return monitor.getMatchedCount();
+        }
+
+        @Override
+        public Map<String, Integer> getGroupCounts() {
+            Map<String, Integer> counts = new LinkedHashMap<>();
+            for (ThreadGroupStats stats : monitor.getGroupStats()) {
+                counts.put(stats.group(), stats.count());
+            }
+            return counts;
+        }
+    }
+
+    private record ClassMonitorView(ClassMonitor monitor) implements ClassMonitorMXBean {
+        @Override
+        public int getGrowingClassCount() {
+            return monitor.getTopGrowers().size();
+        }
+
+        @Override
+        public Map<String, Double> getTopGrowerBytesPerMinute() {
+            Map<String, Double> growth = new LinkedHashMap<>();
+            for (ClassGrowth grower : monitor.getTopGrowers()) {
+                growth.put(grower.className(), grower.bytesPerMinute());
+            }
+            return growth;
+        }
+    }
+
+    private record DescriptorMonitorView(DescriptorMonitor monitor) implements DescriptorMonitorMXBean {
+        @Override
+        public long getOpenCount() {
+            return monitor.getOpenCount();
+        }
+
+        @Override
+        public Map<String, Integer> getTypeCounts() {
+            DescriptorMonitor.DescriptorSummary summary = monitor.getLastSummary();
+            Map<String, Integer> counts = new LinkedHashMap<>();
+            if (summary != null) {
+                for (DescriptorMonitor.FdType type : DescriptorMonitor.FdType.values()) {
+                    counts.put(type.name(), summary.count(type));
+                }
+            }
+            return counts;
+        }
+    }
+
+    private record TcpStateMonitorView(TcpStateMonitor monitor) implements TcpStateMonitorMXBean {
+        @Override
+        public Map<String, Integer> getStateCounts() {
+            TcpStateMonitor.TcpStateSample sample = monitor.getLatestSample();
+            Map<String, Integer> counts = new LinkedHashMap<>();
+            if (sample != null) {
+                for (TcpState state : TcpState.values()) {
+                    counts.put(state.name(), sample.count(state));
+                }
+            }
+            return counts;
+        }
+
+        @Override
+        public int getEphemeralInUse() {
+            TcpStateMonitor.TcpStateSample sample = monitor.getLatestSample();
+            return sample != null ? sample.ephemeralInUse() : 0;
+        }
+
+        @Override
+        public int getEphemeralRange() {
+            TcpStateMonitor.TcpStateSample sample = monitor.getLatestSample();
+            return sample != null ? sample.ephemeralRange() : 0;
+        }
+    }
+
+    private record PinningMonitorView(PinningMonitor monitor) implements PinningMonitorMXBean {
+        @Override
+        public long getPinnedCount() {
+            return monitor.getPinnedCount();
+        }
+
+        @Override
+        public Map<String, Long> getSiteCounts() {
+            Map<String, Long> counts = new LinkedHashMap<>();
+            for (PinnedSiteStats stats : monitor.getSiteStats()) {
+                counts.put(stats.site(), stats.count());
+            }
+            return counts;
+        }
+    }
+
+    private record MonitorRegistryView(MonitorRegistry registry) implements MonitorRegistryMXBean {
+        @Override
+        public boolean isRunning() {
+            return registry.isRunning();
+        }
+
+        @Override
+        public Map<String, Double> getLastDurationMillis() {
+            Map<String, Double> durations = new TreeMap<>();
+            for (MonitorTaskStats stats : registry.getTaskStats()) {
+                durations.put(stats.name(), stats.lastDuration().toNanos() / 1_000_000.0);
+            }
+            return durations;
+        }
+
+        @Override
+        public Map<String, Long> getOverruns() {
+            Map<String, Long> overruns = new TreeMap<>();
+            for (MonitorTaskStats stats : registry.getTaskStats()) {
+                overruns.put(stats.name(), stats.overruns());
+            }
+            return overruns;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package zxf.monitor.object;
+
+import java.util.List;
+
+/**
+ * 分配位置 - 相同堆栈的引用共享同一个分配位置
+ *
+ * @param id         位置编号（0 表示未采集堆栈，-1 表示抽样未命中）
+ * @param location   首个业务帧，用于聚合输出
+ * @param stackTrace 堆栈
+ * @author davis
+ */
+public record AllocationSite(int id, String location, List<StackTraceElement> stackTrace) {
+    /**
+     * 未采集堆栈（NONE 模式或位置表已满）的引用统一归入该位置
+     */
+    public static final AllocationSite UNKNOWN = new AllocationSite(0, "<未采集堆栈>", List.of());
+    /**
+     * SAMPLED 模式下未抽中的引用归入该位置，按位置聚合时由抽中样本按抽样率代表，不单独输出
+     */
+    public static final AllocationSite UNSAMPLED = new AllocationSite(-1, "<未抽样>", List.of());
+
+    @Override
+    public String toString() {
+        return location;
+    }
+}
@@ -0,0 +1,135 @@
+package zxf.monitor.object;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 分配位置表 - 按堆栈哈希驻留分配位置，引用上只保存 int 位置编号
+ *
+ * @author davis
+ */
+class AllocationSiteTable {
+    private final ConcurrentHashMap<Long, AllocationSite> sitesByHash = new ConcurrentHashMap<>();
+    private final List<AllocationSite> sitesById = new CopyOnWriteArrayList<>(List.of(AllocationSite.UNKNOWN));
+    private final List<String> ignoredPrefixes;
+    private final int maxSites;
+    /**
+     * 新位置登记在注册热路径上：用 ReentrantLock 而非 synchronized，竞争时虚拟线程挂起而不占住载体线程
+     */
+    private final ReentrantLock registerLock = new ReentrantLock();
+
+    AllocationSiteTable(List<String> ignoredPrefixes, int maxSites) {
+        this.ignoredPrefixes = List.copyOf(ignoredPrefixes);
+        this.maxSites = maxSites;
+    }
+
+    /**
+     * 驻留堆栈，命中时不生成任何 StackTraceElement
+     *
+     * @return 位置编号
+     */
+    int intern(List<StackWalker.StackFrame> frames) {
+        if (frames == null || frames.isEmpty()) {
+            return AllocationSite.UNKNOWN.id();
+        }
+        long hash = hash(frames, frames.size());
+        AllocationSite site = sitesByHash.get(hash);
+        if (site != null) {
+            return site.id();
+        }
+        return register(hash, frames);
+    }
+
+    /**
+     * 只按首帧驻留（SAMPLED 模式）：同一位置的抽样共享一个编号，首次抽中的堆栈作为该位置的示例堆栈
+     *
+     * @param frames 从业务帧开始的堆栈，首帧即位置
+     * @return 位置编号
+     */
+    int internLocation(List<StackWalker.StackFrame> frames) {
+        if (frames == null || frames.isEmpty()) {
+            return AllocationSite.UNKNOWN.id();
+        }
+        long hash = hash(frames, 1);
+        AllocationSite site = sitesByHash.get(hash);
+        if (site != null) {
+            return site.id();
+        }
+        return register(hash, frames);
+    }
+
+    /**
+     * 类名是否匹配忽略前缀（监控接入层等，不作为分配位置）
+     */
+    boolean isIgnored(String className) {
+        for (String prefix : ignoredPrefixes) {
+            if (className.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 按编号获取分配位置
+     */
+    AllocationSite get(int siteId) {
+        if (siteId == AllocationSite.UNSAMPLED.id()) {
+            return AllocationSite.UNSAMPLED;
+        }
+        return siteId > 0 && siteId < sitesById.size() ? sitesById.get(siteId) : AllocationSite.UNKNOWN;
+    }
+
+    int size() {
+        return sitesById.size() - 1;
+    }
+
+    private int register(long hash, List<StackWalker.StackFrame> frames) {
+        registerLock.lock();
+        try {
+            AllocationSite site = sitesByHash.get(hash);
+            if (site != null) {
+                return site.id();
+            }
+            if (size() >= maxSites) {
+                return AllocationSite.UNKNOWN.id();
+            }
+            List<StackTraceElement> stackTrace = toStackTrace(frames);
+            site = new AllocationSite(sitesById.size(), locate(stackTrace), stackTrace);
+            sitesById.add(site);
+            sitesByHash.put(hash, site);
+            return site.id();
+        } finally {
+            registerLock.unlock();
+        }
+    }
+
+    /**
+     * 64 位哈希覆盖前 count 帧的类名、方法名与字节码偏移，不同堆栈碰撞的概率可以忽略
+     */
+    private static long hash(List<StackWalker.StackFrame> frames, int count) {
+        long hash = 1125899906842597L;
+        for (int i = 0; i < count; i++) {
+            StackWalker.StackFrame frame = frames.get(i);
+            hash = 31 * hash + frame.getClassName().hashCode();
+            hash = 31 * hash + frame.getMethodName().hashCode();
+            hash = 31 * hash + frame.getByteCodeIndex();
+        }
+        return hash;
+    }
+
+    private static List<StackTraceElement> toStackTrace(List<StackWalker.StackFrame> frames) {
+        return frames.stream().map(StackWalker.StackFrame::toStackTraceElement).toList();
+    }
+
+    private String locate(List<StackTraceElement> stackTrace) {
+        for (StackTraceElement element : stackTrace) {
+            if (!isIgnored(element.getClassName())) {
+                return element.toString();
+            }
+        }
+        return stackTrace.get(0).toString();
+    }
+}
@@ -0,0 +1,146 @@
+package zxf.monitor.object;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 分代索引 - 按创建时间把引用放入定宽时间桶（类似时间轮），
+ * 泄漏检测只处理整体越过年龄阈值的桶，平均年龄由累加值 O(1) 计算
+ *
+ * @author davis
+ */
+class GenerationIndex<T> {
+    private final long epochNanos = System.nanoTime();
+    private final long bucketNanos;
+    private final long maxAgeNanos;
+
+    /**
+     * 未过期的分代：桶序号 -> 引用集合
+     */
+    private final ConcurrentHashMap<Long, Set<TReference<T>>> generations = new ConcurrentHashMap<>();
+    /**
+     * 已越过年龄阈值的引用，按状态分开保存，确认时只处理新增的疑似对象
+     */
+    private final Set<TReference<T>> suspected = ConcurrentHashMap.newKeySet();
+    private final Set<TReference<T>> confirmed = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 活跃引用的数量与相对创建时间（毫秒）之和，用于计算平均年龄
+     */
+    private final LongAdder activeCount = new LongAdder();
+    private final LongAdder activeCreationMillisSum = new LongAdder();
+
+    GenerationIndex(long bucketNanos, long maxAgeNanos) {
+        this.bucketNanos = Math.max(1, bucketNanos);
+        this.maxAgeNanos = maxAgeNanos;
+    }
+
+    void add(TReference<T> ref) {
+        long key = (ref.getCreationNanos() - epochNanos) / bucketNanos;
+        Set<TReference<T>> generation = generations.get(key);
+        if (generation == null) {
+            generation = generations.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet());
+        }
+        generation.add(ref);
+        activeCount.increment();
+        activeCreationMillisSum.add(relativeMillis(ref.getCreationNanos()));
+    }
+
+    /**
+     * 移除已回收的引用（调用前引用须已标记为已回收）
+     */
+    void remove(TReference<T> ref) {
+        Set<TReference<T>> generation = generations.get((ref.getCreationNanos() - epochNanos) / bucketNanos);
+        if (generation != null) {
+            generation.remove(ref);
+        }
+        suspected.remove(ref);
+        confirmed.remove(ref);
+        activeCount.decrement();
+        activeCreationMillisSum.add(-relativeMillis(ref.getCreationNanos()));
+    }
+
+    /**
+     * 摘下整体越过年龄阈值的分代，将其中仍活跃的引用标记为疑似泄漏
+     *
+     * @return 本次新增的疑似泄漏引用
+     */
+    List<TReference<T>> expire() {
+        long expiredBefore = (System.nanoTime() - epochNanos - maxAgeNanos) / bucketNanos;
+        List<TReference<T>> newlySuspected = new ArrayList<>();
+        for (Long key : generations.keySet()) {
+            // 桶 key 覆盖 [key, key + 1) 个桶宽，桶尾也超过阈值时整桶过期
+            if (key + 1 > expiredBefore) {
+                continue;
+            }
+            Set<TReference<T>> generation = generations.remove(key);
+            if (generation == null) {
+                continue;
+            }
+            for (TReference<T> ref : generation) {
+                if (ref.markAsLeakSuspected()) {
+                    suspected.add(ref);
+                    // 与回收清理并发：若此时已被回收，清理线程可能先于 add 执行了移除，这里补删
+                    if (ref.isCollected()) {
+                        suspected.remove(ref);
+                    } else {
+                        newlySuspected.add(ref);
+                    }
+                }
+            }
+        }
+        return newlySuspected;
+    }
+
+    /**
+     * 将当前所有疑似泄漏引用确认为泄漏
+     *
+     * @return 本次新增的确认泄漏引用
+     */
+    List<TReference<T>> confirmSuspected() {
+        List<TReference<T>> newlyConfirmed = new ArrayList<>(suspected.size());
+        for (TReference<T> ref : suspected) {
+            if (ref.markAsLeakConfirmed()) {
+                suspected.remove(ref);
+                confirmed.add(ref);
+                if (ref.isCollected()) {
+                    confirmed.remove(ref);
+                } else {
+                    newlyConfirmed.add(ref);
+                }
+            }
+        }
+        return newlyConfirmed;
+    }
+
+    int suspectedCount() {
+        return suspected.size();
+    }
+
+    List<TReference<T>> leakReferences() {
+        List<TReference<T>> result = new ArrayList<>(suspected.size() + confirmed.size());
+        result.addAll(suspected);
+        result.addAll(confirmed);
+        return result;
+    }
+
+    /**
+     * 活跃引用平均年龄（秒）
+     */
+    double averageAgeSeconds() {
+        long count = activeCount.sum();
+        if (count <= 0) {
+            return 0.0;
+        }
+        long sum = activeCreationMillisSum.sum();
+        return Math.max(0.0, (relativeMillis(System.nanoTime()) * (double) count - sum) / count / 1000.0);
+    }
+
+    private long relativeMillis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos - epochNanos);
+    }
+}
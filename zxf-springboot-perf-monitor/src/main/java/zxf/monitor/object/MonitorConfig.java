@@ -3,6 +3,7 @@ package zxf.monitor.object;
 import lombok.Data;
 
 import java.time.Duration;
+import java.util.List;
 
 /**
  * 配置参数
@@ -16,4 +17,27 @@ public class MonitorConfig {
     private boolean autoGcBeforeCheck = false;
     private Duration maxObjectAge = Duration.ofHours(1);
     private int leakSuspectThreshold = 1000;
+    /**
+     * 分配位置采集模式，SAMPLED 下每 stackSampleRate 次注册采集一次（按位置的泄漏数为估算值），
+     * SAMPLED/TOP_N 只保留栈顶 stackDepth 帧
+     */
+    private StackCaptureMode stackCaptureMode = StackCaptureMode.FULL;
+    private int stackSampleRate = 100;
+    private int stackDepth = 8;
+    /**
+     * 相同堆栈驻留为同一分配位置；定位业务帧时跳过以下类名前缀（如监控接入层），位置数超过上限后归入未知位置
+     */
+    private List<String> siteIgnoredPrefixes = List.of();
+    private int maxAllocationSites = 1024;
+    /**
+     * 注册事件经有界环形缓冲异步批量回调监听器；缓冲满时丢弃事件并计数，注册线程从不等待监听器
+     */
+    private int eventBufferSize = 8192;
+    /**
+     * 详细跟踪的对象上限（<= 0 不限，默认不限）；超出后只计数，并按蓄水池抽样为 overflowSampleSize 个对象保留详细引用，
+     * 使泄漏场景下监控器自身的内存占用有上界
+     */
+    private int maxTrackedObjects = 0;
+    private int overflowSampleSize = 256;
+    private Duration eventDispatchInterval = Duration.ofSeconds(1);
 }
@@ -1,5 +1,7 @@
 package zxf.monitor.object;
 
+import java.util.List;
+
 /**
  * 监听器接口（所有方法均为空默认实现，按需重写）
  *
@@ -15,6 +17,17 @@ public interface MonitorListener<T> {
     default void onObjectRegistered(TReference<T> ref) {
     }
 
+    /**
+     * 一批对象注册（异步，在监控调度线程上回调；缓冲满时的事件会被丢弃，不保证覆盖全部注册）
+     *
+     * @param refs 跟踪引用，按注册顺序
+     */
+    default void onObjectsRegistered(List<TReference<T>> refs) {
+        for (TReference<T> ref : refs) {
+            onObjectRegistered(ref);
+        }
+    }
+
     /**
      * 对象回收
      *
@@ -23,6 +36,17 @@ public interface MonitorListener<T> {
     default void onObjectCollected(TReference<T> ref) {
     }
 
+    /**
+     * 一批对象回收（在引用排空线程上回调）
+     *
+     * @param refs 跟踪引用
+     */
+    default void onObjectsCollected(List<TReference<T>> refs) {
+        for (TReference<T> ref : refs) {
+            onObjectCollected(ref);
+        }
+    }
+
     /**
      * 对象泄漏
      *
@@ -41,6 +65,22 @@ public interface MonitorListener<T> {
     default void onLeakConfirmed(TReference<T> ref, String reason) {
     }
 
+    /**
+     * 本轮检测新增的疑似泄漏，按分配位置聚合（数量降序）
+     *
+     * @param reports 聚合报告
+     */
+    default void onLeakSitesSuspected(List<SiteLeakReport> reports) {
+    }
+
+    /**
+     * 本轮检测新增的确认泄漏，按分配位置聚合（数量降序）
+     *
+     * @param reports 聚合报告
+     */
+    default void onLeakSitesConfirmed(List<SiteLeakReport> reports) {
+    }
+
     /**
      * 统计数据更新
      *
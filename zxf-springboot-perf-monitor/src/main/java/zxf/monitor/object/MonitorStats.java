@@ -3,13 +3,13 @@ package zxf.monitor.object;
 import java.time.Instant;
 
 /**
- * 统计数据类
+ * 统计数据类（totalCreated/totalCollected 含超出跟踪上限后的注册与被回收的抽样引用，untrackedCount 为超出跟踪上限后未保留详细引用的对象数）
  *
  * @author davis
  */
 public record MonitorStats(String className, long activeCount, long totalCreated, long totalCollected,
                            long totalLeakSuspected, long totalLeakConfirmed, double avgObjectAgeSeconds,
-                           Instant timestamp) {
+                           long untrackedCount, Instant timestamp) {
     /**
      * 未回收率 = 当前活跃数 / 累计创建数
      *
@@ -1,16 +1,15 @@
 package zxf.monitor.object;
 
 import lombok.extern.slf4j.Slf4j;
+import zxf.monitor.MonitorRegistry;
+import zxf.monitor.MonitorTask;
+import zxf.util.MpscRingBuffer;
 
-import java.lang.ref.Reference;
-import java.lang.ref.ReferenceQueue;
-import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
-import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Consumer;
-import java.util.stream.Collectors;
 
 /**
  * 对象监控器 - 监控特定类对象实例的生命周期
@@ -19,48 +18,45 @@ import java.util.stream.Collectors;
  */
 @Slf4j
 public class ObjectMonitor<T> {
+    private static final int EVENT_BATCH_SIZE = 1024;
     private final Class<T> targetClass;
     private final MonitorConfig monitorConfig = new MonitorConfig();
-    private final ScheduledExecutorService cleanupExecutor;
-    private final ScheduledExecutorService leakDetectionExecutor;
-    private final ScheduledExecutorService statsExecutor;
-    private MonitorListener<T> listener;
+    private final List<MonitorTask> scheduledTasks = new ArrayList<>();
+    private volatile MonitorListener<T> listener;
+    private volatile StackCapturer stackCapturer;
+    private volatile AllocationSiteTable siteTable;
+    private volatile GenerationIndex<T> generationIndex;
+    private volatile MpscRingBuffer<TReference<T>> registeredEvents;
+    private volatile OverflowReservoir<T> overflowReservoir;
+    private volatile boolean overflowWarned;
     private boolean started = false;
+    private final AtomicLong idSequence = new AtomicLong(0);
 
     /**
-     * 监控数据存储
+     * 监控数据存储（分片注册表，注册热路径无全局锁；创建/回收计数按分片维护）
      */
-    private final Map<String, TReference<T>> activeReferences = new ConcurrentHashMap<>();
-    private final ReferenceQueue<T> referenceQueue = new ReferenceQueue<>();
+    private final ReferenceRegistry<T> activeReferences = new ReferenceRegistry<>();
 
     /**
-     * 统计数据
+     * 统计数据（仅由泄漏检测线程累加）
      */
-    private final AtomicLong totalCreated = new AtomicLong(0);
-    private final AtomicLong totalCollected = new AtomicLong(0);
     private final AtomicLong totalLeakSuspected = new AtomicLong(0);
     private final AtomicLong totalLeakConfirmed = new AtomicLong(0);
+    /**
+     * 超出跟踪上限后未保留详细引用的对象数（含被蓄水池替换出的样本）
+     */
+    private final LongAdder untrackedCount = new LongAdder();
+    /**
+     * 超出跟踪上限后的注册数与被回收的蓄水池样本数，计入累计创建/回收数
+     */
+    private final LongAdder overflowCreated = new LongAdder();
+    private final LongAdder overflowCollected = new LongAdder();
 
     /**
-     * 创建对象监控器
+     * 创建对象监控器（不创建线程：回收由共享的 ReferenceDrainer 分发，定时任务注册到共享的 MonitorRegistry）
      */
     public ObjectMonitor(Class<T> targetClass) {
         this.targetClass = targetClass;
-        this.cleanupExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
-            Thread thread = new Thread(r, "ObjectMonitor-Cleanup-" + targetClass.getName());
-            thread.setDaemon(true);
-            return thread;
-        });
-        this.leakDetectionExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
-            Thread thread = new Thread(r, "ObjectMonitor-LeakDetect-" + targetClass.getName());
-            thread.setDaemon(true);
-            return thread;
-        });
-        this.statsExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
-            Thread thread = new Thread(r, "ObjectMonitor-Stats-" + targetClass.getName());
-            thread.setDaemon(true);
-            return thread;
-        });
     }
 
     /**
@@ -72,74 +68,98 @@ public class ObjectMonitor<T> {
                 throw new IllegalStateException("ObjectMonitor already started");
             }
             configurator.accept(monitorConfig);
-            // 调度周期以秒为单位，亚秒配置会被截断为 0 导致 scheduleAtFixedRate 抛异常，提前拦截
             if (monitorConfig.getCheckInterval().getSeconds() < 1
                     || monitorConfig.getStatsInterval().getSeconds() < 1) {
                 throw new IllegalArgumentException("checkInterval/statsInterval must be >= 1 second");
             }
             this.listener = listener;
+            this.siteTable = new AllocationSiteTable(monitorConfig.getSiteIgnoredPrefixes(), monitorConfig.getMaxAllocationSites());
+            this.stackCapturer = new StackCapturer(monitorConfig, siteTable);
+            this.registeredEvents = new MpscRingBuffer<>(monitorConfig.getEventBufferSize());
+            activeReferences.limit(monitorConfig.getMaxTrackedObjects());
+            this.overflowReservoir = new OverflowReservoir<>(monitorConfig.getOverflowSampleSize());
+            // generationIndex 是 register 判断就绪的标志，必须在其他协作对象就绪后最后发布
+            // 桶宽取检测周期与年龄阈值 1/8 的较小值，检测最多比阈值晚一个桶宽加一个检测周期
+            this.generationIndex = new GenerationIndex<>(Math.min(monitorConfig.getCheckInterval().toNanos(),
+                    monitorConfig.getMaxObjectAge().toNanos() / 8), monitorConfig.getMaxObjectAge().toNanos());
             started = true;
-        }
 
-        // 定期清理已回收的引用（快速清理，每100毫秒）
-        cleanupExecutor.scheduleAtFixedRate(this::cleanupCollectedReferences, 100, 100, TimeUnit.MILLISECONDS);
+            // 定期检查泄漏（默认每30秒，由 checkInterval 配置）；autoGcBeforeCheck 时会 System.gc 并等待，在阻塞检查线程上执行
+            scheduledTasks.add(MonitorRegistry.getDefault().registerBlocking("LeakDetect-" + targetClass.getName(),
+                    monitorConfig.getCheckInterval(), this::performLeakDetection));
 
-        // 定期检查泄漏（默认每30秒，由 checkInterval 配置）
-        leakDetectionExecutor.scheduleAtFixedRate(this::performLeakDetection, monitorConfig.getCheckInterval().getSeconds(),
-                monitorConfig.getCheckInterval().getSeconds(), TimeUnit.SECONDS);
+            // 定期输出统计数据（默认每60秒，由 statsInterval 配置）
+            scheduledTasks.add(MonitorRegistry.getDefault().register("Stats-" + targetClass.getName(),
+                    monitorConfig.getStatsInterval(), this::updateStats));
 
-        // 定期输出统计数据（默认每60秒，由 statsInterval 配置）
-        statsExecutor.scheduleAtFixedRate(this::updateStats, monitorConfig.getStatsInterval().getSeconds(),
-                monitorConfig.getStatsInterval().getSeconds(), TimeUnit.SECONDS);
+            // 批量分发注册事件
+            scheduledTasks.add(MonitorRegistry.getDefault().register("Events-" + targetClass.getName(),
+                    monitorConfig.getEventDispatchInterval(), this::dispatchRegisteredEvents));
+        }
     }
 
     /**
-     * 停止监控
+     * 停止监控（共享线程不随单个监控器停止）
      */
     public void shutdown() {
-        shutdownExecutor(cleanupExecutor, "Cleanup");
-        shutdownExecutor(leakDetectionExecutor, "LeakDetect");
-        shutdownExecutor(statsExecutor, "Stats");
-        log.info("[{}] 对象监控器已停止", targetClass.getName());
-    }
-
-    private void shutdownExecutor(ScheduledExecutorService executor, String name) {
-        executor.shutdown();
-        try {
-            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
-                executor.shutdownNow();
-                log.warn("[{}] {} executor did not terminate gracefully", targetClass.getName(), name);
+        synchronized (this) {
+            scheduledTasks.forEach(MonitorTask::cancel);
+            scheduledTasks.clear();
+            if (started) {
+                dispatchRegisteredEvents();
             }
-        } catch (InterruptedException e) {
-            executor.shutdownNow();
-            Thread.currentThread().interrupt();
         }
+        log.info("[{}] 对象监控器已停止", targetClass.getName());
     }
 
     /**
      * 注册对象并附加元数据
+     *
+     * @return 跟踪引用；监控器启动前，或跟踪数已达上限且未被蓄水池抽中（只计入 getUntrackedCount）时返回 null
      */
     public TReference<T> register(T object, Map<String, Object> metadata) {
-        if (!targetClass.isInstance(object)) {
+        GenerationIndex<T> index = generationIndex;
+        if (index == null || !targetClass.isInstance(object)) {
             return null;
         }
 
-        // TReference 构造会抓取完整堆栈，属重操作，移到锁外以降低注册争用
-        TReference<T> ref = new TReference<>(object, referenceQueue, metadata);
-        MonitorListener<T> currentListener;
-        synchronized (this) {
-            activeReferences.put(ref.getId(), ref);
-            totalCreated.incrementAndGet();
-            currentListener = listener;
+        long id = idSequence.incrementAndGet();
+        if (!activeReferences.tryReserve()) {
+            return registerOverflow(object, id, metadata);
         }
 
-        // 回调移出同步块，避免死锁
-        if (currentListener != null) {
-            try {
-                currentListener.onObjectRegistered(ref);
-            } catch (Exception e) {
-                // 忽略监听器异常
-            }
+        TReference<T> ref = new TReference<>(object, this, id, stackCapturer.capture(), metadata);
+        activeReferences.add(ref);
+        index.add(ref);
+
+        // 只入队，监听器在调度线程上批量回调；缓冲满时丢弃（计数见 getDroppedEvents）
+        if (listener != null) {
+            registeredEvents.offer(ref);
+        }
+        return ref;
+    }
+
+    /**
+     * 跟踪数已达上限：只计数，抽中蓄水池时保留详细引用（样本不参与泄漏检测与注册事件）
+     */
+    private TReference<T> registerOverflow(T object, long id, Map<String, Object> metadata) {
+        if (!overflowWarned) {
+            overflowWarned = true;
+            log.warn("[{}] 跟踪对象数达到上限 {}，后续注册仅计数并抽样保留 {} 个详细引用",
+                    targetClass.getName(), monitorConfig.getMaxTrackedObjects(), monitorConfig.getOverflowSampleSize());
+        }
+        overflowCreated.increment();
+        int slot = overflowReservoir.select();
+        if (slot < 0) {
+            untrackedCount.increment();
+            return null;
+        }
+        TReference<T> ref = new TReference<>(object, this, id, stackCapturer.capture(), metadata);
+        TReference<T> evicted = overflowReservoir.place(slot, ref);
+        if (evicted != null) {
+            // 被替换的样本不再跟踪：清除引用使其不再入队
+            evicted.clear();
+            untrackedCount.increment();
         }
         return ref;
     }
@@ -147,7 +167,7 @@ public class ObjectMonitor<T> {
     /**
      * 记录对象访问
      */
-    public void recordAccess(String refId) {
+    public void recordAccess(long refId) {
         TReference<T> ref = activeReferences.get(refId);
         if (ref != null) {
             ref.recordAccess();
@@ -157,7 +177,7 @@ public class ObjectMonitor<T> {
     /**
      * 更新对象生命周期阶段
      */
-    public void updateLifecyclePhase(String refId, String phase) {
+    public void updateLifecyclePhase(long refId, String phase) {
         TReference<T> ref = activeReferences.get(refId);
         if (ref != null) {
             ref.updateLifecyclePhase(phase);
@@ -167,7 +187,7 @@ public class ObjectMonitor<T> {
     /**
      * 添加元数据
      */
-    public void addMetadata(String refId, String key, Object value) {
+    public void addMetadata(long refId, String key, Object value) {
         TReference<T> ref = activeReferences.get(refId);
         if (ref != null) {
             ref.addMetadata(key, value);
@@ -175,70 +195,142 @@ public class ObjectMonitor<T> {
     }
 
     /**
-     * 获取当前统计信息
+     * 获取分配位置
+     *
+     * @param siteId {@link TReference#getSiteId()}
+     * @return 分配位置，未知编号返回 {@link AllocationSite#UNKNOWN}
+     */
+    public AllocationSite getAllocationSite(int siteId) {
+        AllocationSiteTable table = siteTable;
+        return table != null ? table.get(siteId) : AllocationSite.UNKNOWN;
+    }
+
+    /**
+     * 获取当前统计信息（由计数器直接计算，不遍历引用）
      */
     public MonitorStats getStats() {
-        synchronized (this) {
-            return computeStats();
-        }
+        GenerationIndex<T> index = generationIndex;
+        double avgAge = index != null ? index.averageAgeSeconds() : 0.0;
+
+        return new MonitorStats(targetClass.getName(), activeReferences.activeCount(), getTotalCreated(),
+                getTotalCollected(), totalLeakSuspected.get(), totalLeakConfirmed.get(), avgAge,
+                untrackedCount.sum(), Instant.now());
+    }
+
+    public Class<T> getTargetClass() {
+        return targetClass;
+    }
+
+    /**
+     * 以下计数均直接读取分片计数器，不持有监控器锁，供指标导出高频读取
+     */
+    public long getActiveCount() {
+        return activeReferences.activeCount();
+    }
+
+    /**
+     * 累计注册数，含超出跟踪上限后的注册
+     */
+    public long getTotalCreated() {
+        return activeReferences.totalCreated() + overflowCreated.sum();
+    }
+
+    /**
+     * 累计回收数，含被回收的蓄水池样本；累计注册 = 活跃 + 回收 + 未跟踪 + 当前蓄水池样本
+     */
+    public long getTotalCollected() {
+        return activeReferences.totalCollected() + overflowCollected.sum();
+    }
+
+    public long getTotalLeakSuspected() {
+        return totalLeakSuspected.get();
+    }
+
+    public long getTotalLeakConfirmed() {
+        return totalLeakConfirmed.get();
     }
 
     /**
-     * 计算统计信息（调用方必须持有锁）
+     * 超出跟踪上限后未保留详细引用的对象数
      */
-    private MonitorStats computeStats() {
-        long totalAge = activeReferences.values().stream().map(TReference::getAge)
-                .map(Duration::getSeconds).reduce(0L, Long::sum);
-        double avgAge = activeReferences.size() > 0 ? (double) totalAge / activeReferences.size() : 0.0;
+    public long getUntrackedCount() {
+        return untrackedCount.sum();
+    }
 
-        return new MonitorStats(targetClass.getName(), activeReferences.size(), totalCreated.get(), totalCollected.get(),
-                totalLeakSuspected.get(), totalLeakConfirmed.get(), avgAge, Instant.now());
+    /**
+     * 超出跟踪上限后由蓄水池抽样保留的详细引用
+     */
+    public List<TReference<T>> getOverflowSamples() {
+        OverflowReservoir<T> reservoir = overflowReservoir;
+        return reservoir != null ? reservoir.snapshot() : List.of();
+    }
+
+    /**
+     * 因事件缓冲已满而未回调监听器的注册事件数
+     */
+    public long getDroppedEvents() {
+        MpscRingBuffer<TReference<T>> events = registeredEvents;
+        return events != null ? events.droppedCount() : 0;
+    }
+
+    public double getAverageAgeSeconds() {
+        GenerationIndex<T> index = generationIndex;
+        return index != null ? index.averageAgeSeconds() : 0.0;
     }
 
     /**
      * 获取疑似泄漏的引用
      */
     public List<TReference<T>> getLeakSuspectedReferences() {
-        return activeReferences.values().stream()
-                .filter(ref -> ref.isLeakSuspected() || ref.isLeakConfirmed())
-                .collect(Collectors.toList());
+        GenerationIndex<T> index = generationIndex;
+        return index != null ? index.leakReferences() : List.of();
     }
 
     /**
-     * 清理已回收的引用
+     * 处理一批已回收的引用（由 ReferenceDrainer 线程调用）
      */
-    private void cleanupCollectedReferences() {
-        List<TReference<T>> collectedRefs = new ArrayList<>();
-        Reference<? extends T> ref;
-        MonitorListener<T> currentListener;
-
-        // 第一阶段：收集已回收的引用
-        while ((ref = referenceQueue.poll()) != null) {
-            @SuppressWarnings("unchecked")
-            TReference<T> trackedRef = (TReference<T>) ref;
+    void onCollected(List<TReference<T>> collectedRefs) {
+        // 第一阶段：从所在分片与分代移除（回收计数由分片维护）
+        for (TReference<T> trackedRef : collectedRefs) {
             trackedRef.markAsCollected();
-            collectedRefs.add(trackedRef);
+            if (activeReferences.remove(trackedRef)) {
+                generationIndex.remove(trackedRef);
+            } else if (overflowReservoir.remove(trackedRef)) {
+                overflowCollected.increment();
+            }
         }
 
-        // 第二阶段：移除并更新统计
-        synchronized (this) {
-            currentListener = listener;
-            for (TReference<T> trackedRef : collectedRefs) {
-                if (activeReferences.remove(trackedRef.getId()) != null) {
-                    totalCollected.incrementAndGet();
-                }
+        // 第二阶段：批量回调
+        MonitorListener<T> currentListener = listener;
+        if (currentListener != null) {
+            try {
+                currentListener.onObjectsCollected(collectedRefs);
+            } catch (Exception e) {
+                // 忽略监听器异常
             }
         }
+    }
 
-        // 第三阶段：回调移出同步块，避免死锁
-        if (currentListener != null) {
-            for (TReference<T> trackedRef : collectedRefs) {
-                try {
-                    currentListener.onObjectCollected(trackedRef);
-                } catch (Exception e) {
-                    // 忽略监听器异常
-                }
+    /**
+     * 取出缓冲中的注册事件并批量回调（仅在调度线程或停止时调用，满足单消费者约束）
+     */
+    private synchronized void dispatchRegisteredEvents() {
+        MonitorListener<T> currentListener = listener;
+        MpscRingBuffer<TReference<T>> events = registeredEvents;
+        if (currentListener == null) {
+            return;
+        }
+        List<TReference<T>> batch = new ArrayList<>(EVENT_BATCH_SIZE);
+        // 每轮最多取一个缓冲容量，避免注册速度高于回调速度时本任务无法结束
+        int remaining = events.capacity();
+        while (remaining > 0 && events.drainTo(batch, Math.min(EVENT_BATCH_SIZE, remaining)) > 0) {
+            remaining -= batch.size();
+            try {
+                currentListener.onObjectsRegistered(batch);
+            } catch (Exception e) {
+                // 忽略监听器异常
             }
+            batch = new ArrayList<>(EVENT_BATCH_SIZE);
         }
     }
 
@@ -258,36 +350,27 @@ public class ObjectMonitor<T> {
         // 用于存储需要回调的事件
         List<LeakEvent> leakEvents = new ArrayList<>();
         List<LeakEvent> confirmEvents = new ArrayList<>();
-        MonitorListener<T> currentListener;
 
-        // 第一阶段：检测并标记泄漏，收集回调事件
-        synchronized (this) {
-            currentListener = listener;
-            for (TReference<T> ref : activeReferences.values()) {
-                if (ref.isActive() && ref.getAge().compareTo(monitorConfig.getMaxObjectAge()) > 0) {
-                    String reason = "对象存活时间超过 " + monitorConfig.getMaxObjectAge();
-                    ref.markAsLeakSuspected(reason);
-                    totalLeakSuspected.incrementAndGet();
-                    leakEvents.add(new LeakEvent(ref, reason));
-                }
-            }
+        // 第一阶段：只处理整体越过年龄阈值的分代（检测仅在单一调度线程执行，状态迁移为 CAS，与注册/回收并发安全）
+        String ageReason = "对象存活时间超过 " + monitorConfig.getMaxObjectAge();
+        for (TReference<T> ref : generationIndex.expire()) {
+            totalLeakSuspected.incrementAndGet();
+            leakEvents.add(new LeakEvent(ref, ageReason));
+        }
 
-            // 当前疑似数量（非累计值）超过阈值时，将疑似对象批量确认为泄漏
-            List<TReference<T>> suspectedRefs = activeReferences.values().stream()
-                    .filter(TReference::isLeakSuspected)
-                    .toList();
-            if (suspectedRefs.size() > monitorConfig.getLeakSuspectThreshold()) {
-                String reason = "疑似泄漏数量超过确认阈值 (" + suspectedRefs.size() + " > "
-                        + monitorConfig.getLeakSuspectThreshold() + ")";
-                for (TReference<T> ref : suspectedRefs) {
-                    ref.markAsLeakConfirmed(reason);
-                    totalLeakConfirmed.incrementAndGet();
-                    confirmEvents.add(new LeakEvent(ref, reason));
-                }
+        // 当前疑似数量（非累计值）超过阈值时，将疑似对象批量确认为泄漏
+        int suspectedCount = generationIndex.suspectedCount();
+        if (suspectedCount > monitorConfig.getLeakSuspectThreshold()) {
+            String reason = "疑似泄漏数量超过确认阈值 (" + suspectedCount + " > "
+                    + monitorConfig.getLeakSuspectThreshold() + ")";
+            for (TReference<T> ref : generationIndex.confirmSuspected()) {
+                totalLeakConfirmed.incrementAndGet();
+                confirmEvents.add(new LeakEvent(ref, reason));
             }
         }
 
-        // 第二阶段：回调移出同步块，避免死锁
+        // 第二阶段：回调
+        MonitorListener<T> currentListener = listener;
         if (currentListener != null) {
             for (LeakEvent event : leakEvents) {
                 try {
@@ -307,7 +390,41 @@ public class ObjectMonitor<T> {
                     // 忽略监听器异常
                 }
             }
+            try {
+                // SAMPLED 模式下本轮可能没有抽中的引用，此时不回调
+                List<SiteLeakReport> suspectedSites = aggregateBySite(leakEvents, ageReason);
+                if (!suspectedSites.isEmpty()) {
+                    currentListener.onLeakSitesSuspected(suspectedSites);
+                }
+                if (!confirmEvents.isEmpty()) {
+                    List<SiteLeakReport> confirmedSites = aggregateBySite(confirmEvents, confirmEvents.get(0).reason);
+                    if (!confirmedSites.isEmpty()) {
+                        currentListener.onLeakSitesConfirmed(confirmedSites);
+                    }
+                }
+            } catch (Exception e) {
+                // 忽略监听器异常
+            }
+        }
+    }
+
+    /**
+     * 按分配位置聚合泄漏事件，按数量降序；SAMPLED 模式下只统计抽中的引用并乘以抽样率作为估算值
+     */
+    private List<SiteLeakReport> aggregateBySite(List<LeakEvent> events, String reason) {
+        Map<Integer, long[]> counts = new HashMap<>();
+        for (LeakEvent event : events) {
+            int siteId = event.ref.getSiteId();
+            if (siteId != AllocationSite.UNSAMPLED.id()) {
+                counts.computeIfAbsent(siteId, k -> new long[1])[0]++;
+            }
         }
+        int weight = stackCapturer.sampleWeight();
+        List<SiteLeakReport> reports = new ArrayList<>(counts.size());
+        counts.forEach((siteId, count) -> reports.add(
+                new SiteLeakReport(getAllocationSite(siteId), count[0] * weight, reason, weight > 1)));
+        reports.sort(Comparator.comparingLong(SiteLeakReport::count).reversed());
+        return reports;
     }
 
     /**
@@ -336,15 +453,22 @@ public class ObjectMonitor<T> {
                 String.format("%.1f", stats.getUncollectedRate() * 100),
                 String.format("%.1f", stats.avgObjectAgeSeconds()));
 
+        if (stats.untrackedCount() > 0) {
+            log.warn("[{}] 超出跟踪上限未详细跟踪的对象: {}, 抽样保留: {}",
+                    targetClass.getName(), stats.untrackedCount(), getOverflowSamples().size());
+        }
+
+        long droppedEvents = getDroppedEvents();
+        if (droppedEvents > 0) {
+            log.warn("[{}] 事件缓冲已满，累计丢弃注册事件: {}", targetClass.getName(), droppedEvents);
+        }
+
         if (stats.activeCount() > monitorConfig.getLeakSuspectThreshold()) {
             log.warn("[{}] 活跃对象数量超过阈值 ({} > {})",
                     targetClass.getName(), stats.activeCount(), monitorConfig.getLeakSuspectThreshold());
         }
 
-        MonitorListener<T> currentListener;
-        synchronized (this) {
-            currentListener = listener;
-        }
+        MonitorListener<T> currentListener = listener;
         if (currentListener != null) {
             try {
                 currentListener.onStatsUpdated(stats);
@@ -0,0 +1,79 @@
+package zxf.monitor.object;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 溢出蓄水池 - 跟踪数达到上限后，对后续注册做蓄水池抽样（Algorithm R），
+ * 只为固定数量的样本保留详细引用，其余仅计数
+ *
+ * @author davis
+ */
+class OverflowReservoir<T> {
+    private final AtomicReferenceArray<TReference<T>> samples;
+    /**
+     * 进入溢出后的注册总数
+     */
+    private final AtomicLong seen = new AtomicLong();
+
+    OverflowReservoir(int size) {
+        this.samples = new AtomicReferenceArray<>(Math.max(0, size));
+    }
+
+    /**
+     * 为一次溢出注册抽签
+     *
+     * @return 选中的槽位，-1 表示不保留详细引用
+     */
+    int select() {
+        long n = seen.incrementAndGet();
+        int size = samples.length();
+        if (n <= size) {
+            return (int) (n - 1);
+        }
+        // 第 n 个元素以 size/n 的概率替换随机槽位，保证每个溢出对象被保留的概率相同
+        long slot = ThreadLocalRandom.current().nextLong(n);
+        return slot < size ? (int) slot : -1;
+    }
+
+    /**
+     * 放入样本
+     *
+     * @return 被替换出的旧样本（已不再详细跟踪），槽位原为空时为 null
+     */
+    TReference<T> place(int slot, TReference<T> ref) {
+        return samples.getAndSet(slot, ref);
+    }
+
+    /**
+     * 移除已回收的样本
+     *
+     * @return true 引用是当前样本之一
+     */
+    boolean remove(TReference<T> ref) {
+        for (int i = 0; i < samples.length(); i++) {
+            if (samples.get(i) == ref) {
+                return samples.compareAndSet(i, ref, null);
+            }
+        }
+        return false;
+    }
+
+    long seenCount() {
+        return seen.get();
+    }
+
+    List<TReference<T>> snapshot() {
+        List<TReference<T>> result = new ArrayList<>();
+        for (int i = 0; i < samples.length(); i++) {
+            TReference<T> ref = samples.get(i);
+            if (ref != null) {
+                result.add(ref);
+            }
+        }
+        return result;
+    }
+}
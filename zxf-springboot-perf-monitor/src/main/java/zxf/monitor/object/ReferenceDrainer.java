@@ -0,0 +1,71 @@
+package zxf.monitor.object;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 引用回收排空器 - 所有对象监控器共享一个引用队列，由单个守护线程阻塞等待并按批分发，空闲时不产生任何唤醒
+ *
+ * @author davis
+ */
+@Slf4j
+final class ReferenceDrainer {
+    private static final int MAX_BATCH = 1024;
+    private static final ReferenceQueue<Object> QUEUE = new ReferenceQueue<>();
+
+    static {
+        Thread thread = new Thread(ReferenceDrainer::drainLoop, "ObjectMonitor-ReferenceDrainer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private ReferenceDrainer() {
+    }
+
+    /**
+     * 共享引用队列
+     */
+    static ReferenceQueue<Object> queue() {
+        return QUEUE;
+    }
+
+    private static void drainLoop() {
+        List<TReference<?>> batch = new ArrayList<>(MAX_BATCH);
+        while (true) {
+            try {
+                // 阻塞等待第一个回收引用，随后非阻塞地取出同批已入队的引用
+                Reference<?> ref = QUEUE.remove();
+                do {
+                    batch.add((TReference<?>) ref);
+                } while (batch.size() < MAX_BATCH && (ref = QUEUE.poll()) != null);
+                dispatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Throwable ex) {
+                log.error("Error in reference drainer", ex);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * 按所属监控器切分连续片段后分发
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static void dispatch(List<TReference<?>> batch) {
+        int start = 0;
+        for (int i = 1; i <= batch.size(); i++) {
+            if (i == batch.size() || batch.get(i).getOwner() != batch.get(start).getOwner()) {
+                ObjectMonitor owner = batch.get(start).getOwner();
+                owner.onCollected((List) batch.subList(start, i));
+                start = i;
+            }
+        }
+    }
+}
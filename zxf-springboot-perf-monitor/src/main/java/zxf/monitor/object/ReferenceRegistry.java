@@ -0,0 +1,131 @@
+package zxf.monitor.object;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 分片引用注册表 - 按引用 id 散列到多个分片，注册/移除热路径不持有任何全局锁
+ *
+ * @author davis
+ */
+class ReferenceRegistry<T> {
+    private final Shard<T>[] shards;
+    private final int mask;
+    /**
+     * 全局跟踪上限（Long.MAX_VALUE 表示不限）
+     */
+    private volatile long capacity = Long.MAX_VALUE;
+    /**
+     * 已占用的跟踪名额，仅在设置了上限时维护，不限时注册热路径不触碰该计数
+     */
+    private final AtomicLong tracked = new AtomicLong();
+
+    @SuppressWarnings("unchecked")
+    ReferenceRegistry() {
+        // 分片数取不小于 CPU 数 4 倍的 2 的幂，使 Tomcat 工作线程在注册时基本落在不同分片
+        int size = Integer.highestOneBit(Math.max(2, Runtime.getRuntime().availableProcessors() * 4) - 1) << 1;
+        this.shards = new Shard[size];
+        for (int i = 0; i < size; i++) {
+            shards[i] = new Shard<>();
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * 设置跟踪上限（需在监控器启动、开始注册前调用）
+     *
+     * @param maxTracked 总上限，<= 0 表示不限
+     */
+    void limit(long maxTracked) {
+        this.capacity = maxTracked > 0 ? maxTracked : Long.MAX_VALUE;
+    }
+
+    /**
+     * 占用一个跟踪名额（按全局计数判断，不会超过总上限），成功后必须调用 add
+     *
+     * @return false 已达上限
+     */
+    boolean tryReserve() {
+        long max = capacity;
+        if (max == Long.MAX_VALUE) {
+            return true;
+        }
+        if (tracked.incrementAndGet() <= max) {
+            return true;
+        }
+        tracked.decrementAndGet();
+        return false;
+    }
+
+    /**
+     * 注册引用
+     */
+    void add(TReference<T> ref) {
+        Shard<T> shard = shardFor(ref.getId());
+        shard.references.put(ref.getId(), ref);
+        shard.created.increment();
+    }
+
+    /**
+     * 按 id 查找引用
+     */
+    TReference<T> get(long id) {
+        return shardFor(id).references.get(id);
+    }
+
+    /**
+     * 移除已回收的引用
+     *
+     * @return true 本次调用完成移除，false 引用已不在注册表中
+     */
+    boolean remove(TReference<T> ref) {
+        Shard<T> shard = shardFor(ref.getId());
+        if (shard.references.remove(ref.getId()) != null) {
+            shard.collected.increment();
+            if (capacity != Long.MAX_VALUE) {
+                tracked.decrementAndGet();
+            }
+            return true;
+        }
+        return false;
+    }
+
+    long activeCount() {
+        long count = 0;
+        for (Shard<T> shard : shards) {
+            count += shard.references.size();
+        }
+        return count;
+    }
+
+    long totalCreated() {
+        long sum = 0;
+        for (Shard<T> shard : shards) {
+            sum += shard.created.sum();
+        }
+        return sum;
+    }
+
+    long totalCollected() {
+        long sum = 0;
+        for (Shard<T> shard : shards) {
+            sum += shard.collected.sum();
+        }
+        return sum;
+    }
+
+    private Shard<T> shardFor(long id) {
+        // id 单调递增，取低位即可让相邻注册均匀落在不同分片
+        return shards[(int) id & mask];
+    }
+
+    /**
+     * 单个分片：独立的引用表与计数器
+     */
+    private static final class Shard<T> {
+        final ConcurrentHashMap<Long, TReference<T>> references = new ConcurrentHashMap<>();
+        final LongAdder created = new LongAdder();
+        final LongAdder collected = new LongAdder();
+    }
+}
@@ -0,0 +1,21 @@
+package zxf.monitor.object;
+
+/**
+ * 按分配位置聚合的泄漏报告
+ *
+ * @param site   分配位置
+ * @param count     本轮检测中该位置新增的泄漏对象数
+ * @param reason    原因
+ * @param estimated count 是否为抽样估算值（SAMPLED 模式下为抽中数乘以抽样率）
+ * @author davis
+ */
+public record SiteLeakReport(AllocationSite site, long count, String reason, boolean estimated) {
+    public SiteLeakReport(AllocationSite site, long count, String reason) {
+        this(site, count, reason, false);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(estimated ? "约 %,d 个对象（抽样估算）来自 %s" : "%,d 个对象来自 %s", count, site.location());
+    }
+}
@@ -0,0 +1,26 @@
+package zxf.monitor.object;
+
+/**
+ * 分配位置（堆栈）采集模式
+ *
+ * @author davis
+ */
+public enum StackCaptureMode {
+    /**
+     * 不采集堆栈
+     */
+    NONE,
+    /**
+     * 按 1/N 抽样采集栈顶若干帧，未抽中的注册不遍历堆栈；按位置的泄漏数由抽中样本乘以 N 估算
+     * （N 由 stackSampleRate 配置，帧数由 stackDepth 配置）
+     */
+    SAMPLED,
+    /**
+     * 每次采集栈顶 N 帧
+     */
+    TOP_N,
+    /**
+     * 每次采集完整堆栈
+     */
+    FULL
+}
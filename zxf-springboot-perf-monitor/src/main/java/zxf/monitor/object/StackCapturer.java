@@ -0,0 +1,67 @@
+package zxf.monitor.object;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 分配位置采集器 - 基于 StackWalker 只遍历需要的帧，并驻留到分配位置表中
+ *
+ * @author davis
+ */
+class StackCapturer {
+    private static final StackWalker WALKER = StackWalker.getInstance();
+    private static final String MONITOR_PACKAGE = StackCapturer.class.getPackageName() + ".";
+
+    private final StackCaptureMode mode;
+    private final int sampleRate;
+    private final int depth;
+    private final AllocationSiteTable siteTable;
+
+    StackCapturer(MonitorConfig config, AllocationSiteTable siteTable) {
+        this.mode = config.getStackCaptureMode();
+        this.sampleRate = Math.max(1, config.getStackSampleRate());
+        this.depth = Math.max(1, config.getStackDepth());
+        this.siteTable = siteTable;
+    }
+
+    /**
+     * 采集调用方堆栈（跳过监控器自身的帧）
+     *
+     * @return 分配位置编号，未采集时返回 {@link AllocationSite#UNKNOWN} 的编号，SAMPLED 未抽中时返回 {@link AllocationSite#UNSAMPLED} 的编号
+     */
+    int capture() {
+        return switch (mode) {
+            case NONE -> AllocationSite.UNKNOWN.id();
+            // 未抽中的注册不遍历堆栈；按位置的泄漏计数由抽中样本乘以抽样率估算
+            case SAMPLED -> ThreadLocalRandom.current().nextInt(sampleRate) == 0
+                    ? siteTable.internLocation(walkFromLocation(depth)) : AllocationSite.UNSAMPLED.id();
+            case TOP_N -> siteTable.intern(walk(depth));
+            case FULL -> siteTable.intern(walk(Integer.MAX_VALUE));
+        };
+    }
+
+    /**
+     * 按位置计数时每个已采集引用代表的引用数（SAMPLED 为抽样率，其余模式为 1）
+     */
+    int sampleWeight() {
+        return mode == StackCaptureMode.SAMPLED ? sampleRate : 1;
+    }
+
+    /**
+     * 从首个业务帧（跳过监控器自身与忽略前缀的帧）开始遍历
+     */
+    private List<StackWalker.StackFrame> walkFromLocation(int limit) {
+        return WALKER.walk(frames -> frames
+                .dropWhile(frame -> frame.getClassName().startsWith(MONITOR_PACKAGE)
+                        || siteTable.isIgnored(frame.getClassName()))
+                .limit(limit)
+                .toList());
+    }
+
+    private static List<StackWalker.StackFrame> walk(int limit) {
+        return WALKER.walk(frames -> frames
+                .dropWhile(frame -> frame.getClassName().startsWith(MONITOR_PACKAGE))
+                .limit(limit)
+                .toList());
+    }
+}
@@ -3,48 +3,66 @@ package zxf.monitor.object;
 
 import lombok.Getter;
 
-import java.lang.ref.ReferenceQueue;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.lang.ref.WeakReference;
-import java.time.Instant;
 import java.time.Duration;
-import java.util.*;
+import java.time.Instant;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * 追踪引用 - 包含对象的额外元数据
+ * 追踪引用 - 紧凑布局：时间为 nanoTime 长整型，状态为单字节，元数据映射按需创建
  *
  * @author davis
  */
 public class TReference<T> extends WeakReference<T> {
+    private static final VarHandle STATE;
+    private static final State[] STATES = State.values();
+
+    static {
+        try {
+            STATE = MethodHandles.lookup().findVarHandle(TReference.class, "state", byte.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
     @Getter
-    private final String id;
-    @Getter
-    private final String className;
-    @Getter
-    private final Instant creationTime;
-    @Getter
-    private final Map<String, Object> metadata;
+    private final long id;
+    /**
+     * 分配位置编号，堆栈本身保存在所属监控器的分配位置表中
+     */
     @Getter
-    private volatile State state;
+    private final int siteId;
     @Getter
-    private volatile Instant lastAccessTime;
+    private final String className;
+    /**
+     * 所属监控器，共享引用队列排空时据此分发
+     */
+    private final ObjectMonitor<T> owner;
+    private final long creationNanos;
+    private volatile long lastAccessNanos;
+    private volatile byte state;
     @Getter
     private volatile String lifecyclePhase;
+    /**
+     * 附加元数据，仅在调用方确实写入时才创建
+     */
+    private volatile Map<String, Object> metadata;
 
-    public TReference(T referent, ReferenceQueue<? super T> queue, Map<String, Object> additionalMetadata) {
-        super(referent, queue);
-        this.id = UUID.randomUUID().toString();
+    public TReference(T referent, ObjectMonitor<T> owner, long id, int siteId, Map<String, Object> additionalMetadata) {
+        super(referent, ReferenceDrainer.queue());
+        this.owner = owner;
+        this.id = id;
+        this.siteId = siteId;
         this.className = referent.getClass().getName();
-        this.creationTime = Instant.now();
-        this.state = State.ACTIVE;
-        this.lastAccessTime = Instant.now();
+        this.creationNanos = System.nanoTime();
+        this.lastAccessNanos = creationNanos;
+        this.state = (byte) State.ACTIVE.ordinal();
         this.lifecyclePhase = "created";
-        this.metadata = new ConcurrentHashMap<>();
-        this.metadata.put("hashCode", System.identityHashCode(referent));
-        this.metadata.put("threadName", Thread.currentThread().getName());
-        this.metadata.put("stackTrace", List.of(Thread.currentThread().getStackTrace()));
-        if (additionalMetadata != null) {
-            this.metadata.putAll(additionalMetadata);
+        if (additionalMetadata != null && !additionalMetadata.isEmpty()) {
+            this.metadata = new ConcurrentHashMap<>(additionalMetadata);
         }
     }
 
@@ -72,13 +90,42 @@ public class TReference<T> extends WeakReference<T> {
         GARBAGE_COLLECTED
     }
 
+    ObjectMonitor<T> getOwner() {
+        return owner;
+    }
+
+    public State getState() {
+        return STATES[state];
+    }
+
+    /**
+     * 创建时间（由 nanoTime 换算，仅用于展示）
+     */
+    public Instant getCreationTime() {
+        return Instant.now().minusNanos(System.nanoTime() - creationNanos);
+    }
+
+    /**
+     * 最近访问时间（由 nanoTime 换算，仅用于展示）
+     */
+    public Instant getLastAccessTime() {
+        return Instant.now().minusNanos(System.nanoTime() - lastAccessNanos);
+    }
+
+    /**
+     * 创建时刻的 System.nanoTime()
+     */
+    public long getCreationNanos() {
+        return creationNanos;
+    }
+
     /**
      * 计算对象年龄
      *
      * @return 年龄
      */
     public Duration getAge() {
-        return Duration.between(creationTime, Instant.now());
+        return Duration.ofNanos(System.nanoTime() - creationNanos);
     }
 
     /**
@@ -87,14 +134,14 @@ public class TReference<T> extends WeakReference<T> {
      * @return 空闲时间
      */
     public Duration getIdleTime() {
-        return Duration.between(lastAccessTime, Instant.now());
+        return Duration.ofNanos(System.nanoTime() - lastAccessNanos);
     }
 
     /**
      * 记录访问
      */
     public void recordAccess() {
-        this.lastAccessTime = Instant.now();
+        this.lastAccessNanos = System.nanoTime();
     }
 
     /**
@@ -102,16 +149,32 @@ public class TReference<T> extends WeakReference<T> {
      */
     public void updateLifecyclePhase(String phase) {
         this.lifecyclePhase = phase;
-        metadata.put("lifecyclePhase", phase);
-        metadata.put("phaseUpdateTime", Instant.now().toString());
         recordAccess();
     }
 
+    /**
+     * 获取元数据（未写入过时返回空映射）
+     */
+    public Map<String, Object> getMetadata() {
+        Map<String, Object> current = metadata;
+        return current != null ? current : Map.of();
+    }
+
     /**
      * 添加或更新元数据
      */
     public void addMetadata(String key, Object value) {
-        metadata.put(key, value);
+        Map<String, Object> current = metadata;
+        if (current == null) {
+            synchronized (this) {
+                current = metadata;
+                if (current == null) {
+                    current = new ConcurrentHashMap<>();
+                    metadata = current;
+                }
+            }
+        }
+        current.put(key, value);
     }
 
     /**
@@ -120,7 +183,7 @@ public class TReference<T> extends WeakReference<T> {
      * @return true 是，false 否
      */
     public boolean isActive() {
-        return this.state == State.ACTIVE;
+        return state == State.ACTIVE.ordinal();
     }
 
     /**
@@ -129,16 +192,16 @@ public class TReference<T> extends WeakReference<T> {
      * @return true 是，false 否
      */
     public boolean isLeakSuspected() {
-        return this.state == State.LEAK_SUSPECTED;
+        return state == State.LEAK_SUSPECTED.ordinal();
     }
 
     /**
-     * 标记为疑似泄漏
+     * 标记为疑似泄漏（仅从活跃状态迁移，避免与回收清理并发时覆盖已回收状态）
+     *
+     * @return true 迁移成功，false 状态已变化
      */
-    public void markAsLeakSuspected(String reason) {
-        this.state = State.LEAK_SUSPECTED;
-        metadata.put("leakSuspectedReason", reason);
-        metadata.put("leakSuspectedTime", Instant.now().toString());
+    public boolean markAsLeakSuspected() {
+        return transition(State.ACTIVE, State.LEAK_SUSPECTED);
     }
 
     /**
@@ -147,16 +210,16 @@ public class TReference<T> extends WeakReference<T> {
      * @return true 是，false 否
      */
     public boolean isLeakConfirmed() {
-        return this.state == State.LEAK_CONFIRMED;
+        return state == State.LEAK_CONFIRMED.ordinal();
     }
 
     /**
-     * 标记为确认泄漏
+     * 标记为确认泄漏（仅从疑似泄漏状态迁移）
+     *
+     * @return true 迁移成功，false 状态已变化
      */
-    public void markAsLeakConfirmed(String reason) {
-        this.state = State.LEAK_CONFIRMED;
-        metadata.put("leakConfirmedReason", reason);
-        metadata.put("leakConfirmedTime", Instant.now().toString());
+    public boolean markAsLeakConfirmed() {
+        return transition(State.LEAK_SUSPECTED, State.LEAK_CONFIRMED);
     }
 
 
@@ -166,7 +229,7 @@ public class TReference<T> extends WeakReference<T> {
      * @return true 是，false 否
      */
     public boolean isCollected() {
-        return this.state == State.GARBAGE_COLLECTED;
+        return state == State.GARBAGE_COLLECTED.ordinal();
     }
 
 
@@ -174,19 +237,23 @@ public class TReference<T> extends WeakReference<T> {
      * 标记为已回收
      */
     public void markAsCollected() {
-        this.state = State.GARBAGE_COLLECTED;
+        this.state = (byte) State.GARBAGE_COLLECTED.ordinal();
+    }
+
+    private boolean transition(State expected, State target) {
+        return STATE.compareAndSet(this, (byte) expected.ordinal(), (byte) target.ordinal());
     }
 
     /**
      * 获取对象的摘要信息
      */
     public String getSummary() {
-        return String.format("TrackedReference[id=%s, class=%s, state=%s, age=%s, idle=%s, metadata=%s]",
-                id, className, state, getAge(), getIdleTime(), getMetadata().toString());
+        return String.format("TrackedReference[id=%d, class=%s, state=%s, phase=%s, age=%s, idle=%s, site=#%d, metadata=%s]",
+                id, className, getState(), lifecyclePhase, getAge(), getIdleTime(), siteId, getMetadata());
     }
 
     @Override
     public String toString() {
         return getSummary();
     }
-}
\ No newline at end of file
+}
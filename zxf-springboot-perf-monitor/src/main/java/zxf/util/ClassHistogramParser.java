@@ -0,0 +1,105 @@
+package zxf.util;
+
+/**
+ * 类直方图流式解析 - 逐行扫描原始文本，只为命中前缀的类生成类名字符串，不拆分行、不使用正则
+ * <pre>
+ *  num     #instances         #bytes  class name (module)
+ * -------------------------------------------------------
+ *    1:         12345        6789012  [B (java.base@21)
+ * </pre>
+ */
+public class ClassHistogramParser {
+    /**
+     * 命中回调
+     */
+    @FunctionalInterface
+    public interface Visitor {
+        void onClass(String className, long instances, long bytes);
+    }
+
+    private final String[] prefixes;
+
+    public ClassHistogramParser(String[] prefixes) {
+        this.prefixes = prefixes.clone();
+    }
+
+    /**
+     * 解析整段直方图文本
+     */
+    public void parse(String histogram, Visitor visitor) {
+        int length = histogram.length();
+        int lineStart = 0;
+        while (lineStart < length) {
+            int lineEnd = histogram.indexOf('\n', lineStart);
+            if (lineEnd < 0) {
+                lineEnd = length;
+            }
+            parseLine(histogram, lineStart, lineEnd, visitor);
+            lineStart = lineEnd + 1;
+        }
+    }
+
+    /**
+     * 解析单行（jcmd 进程输出的回退路径按行调用）
+     */
+    public void parseLine(String line, Visitor visitor) {
+        parseLine(line, 0, line.length(), visitor);
+    }
+
+    private void parseLine(String text, int from, int to, Visitor visitor) {
+        // 序号列 "   1:"
+        int pos = skipSpaces(text, from, to);
+        int digitsEnd = skipDigits(text, pos, to);
+        if (digitsEnd == pos || digitsEnd >= to || text.charAt(digitsEnd) != ':') {
+            return;
+        }
+        // 实例数列
+        pos = skipSpaces(text, digitsEnd + 1, to);
+        digitsEnd = skipDigits(text, pos, to);
+        if (digitsEnd == pos) {
+            return;
+        }
+        long instances = parseLong(text, pos, digitsEnd);
+        // 字节数列
+        pos = skipSpaces(text, digitsEnd, to);
+        digitsEnd = skipDigits(text, pos, to);
+        if (digitsEnd == pos) {
+            return;
+        }
+        long bytes = parseLong(text, pos, digitsEnd);
+        // 类名列（模块信息以空格分隔，忽略）
+        int nameStart = skipSpaces(text, digitsEnd, to);
+        int nameEnd = nameStart;
+        while (nameEnd < to && text.charAt(nameEnd) != ' ' && text.charAt(nameEnd) != '\r') {
+            nameEnd++;
+        }
+        for (String prefix : prefixes) {
+            if (nameEnd - nameStart >= prefix.length() && text.regionMatches(nameStart, prefix, 0, prefix.length())) {
+                visitor.onClass(text.substring(nameStart, nameEnd), instances, bytes);
+                return;
+            }
+        }
+    }
+
+    private static int skipSpaces(String text, int pos, int to) {
+        while (pos < to && text.charAt(pos) == ' ') {
+            pos++;
+        }
+        return pos;
+    }
+
+    private static int skipDigits(String text, int pos, int to) {
+        while (pos < to && text.charAt(pos) >= '0' && text.charAt(pos) <= '9') {
+            pos++;
+        }
+        return pos;
+    }
+
+    private static long parseLong(String text, int from, int to) {
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            value = value * 10 + (text.charAt(i) - '0');
+        }
+        return value;
+    }
+}
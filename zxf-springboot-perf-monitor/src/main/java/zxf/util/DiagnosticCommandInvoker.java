@@ -0,0 +1,29 @@
+package zxf.util;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+/**
+ * 进程内诊断命令调用 - 通过 DiagnosticCommand MBean 执行 jcmd 命令，无需 fork jcmd 进程
+ */
+public class DiagnosticCommandInvoker {
+    private static final String DIAGNOSTIC_COMMAND_MBEAN = "com.sun.management:type=DiagnosticCommand";
+    private static final String[] SIGNATURE = {String[].class.getName()};
+
+    /**
+     * 等价于 jcmd &lt;pid&gt; GC.class_histogram
+     *
+     * @param liveOnly true 只统计存活对象（命令自身会触发一次 Full GC），false 附加 -all 统计所有对象、不触发 GC
+     * @return 直方图文本
+     */
+    public static String getClassHistogram(boolean liveOnly) throws Exception {
+        String[] arguments = liveOnly ? new String[0] : new String[]{"-all"};
+        return invoke("gcClassHistogram", arguments);
+    }
+
+    private static String invoke(String operation, String[] arguments) throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        return (String) server.invoke(new ObjectName(DIAGNOSTIC_COMMAND_MBEAN), operation, new Object[]{arguments}, SIGNATURE);
+    }
+}
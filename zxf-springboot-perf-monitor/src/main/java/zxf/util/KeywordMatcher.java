@@ -0,0 +1,130 @@
+package zxf.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.TreeSet;
+
+/**
+ * 多关键字匹配 - 预编译的 Aho-Corasick 自动机（失配转移已展开为完整的状态转移表），
+ * 一次扫描即可判断文本是否包含任一关键字，匹配过程不分配对象
+ */
+public class KeywordMatcher {
+    private final char[] alphabet;
+    private final int width;
+    /**
+     * 状态转移表：state * width + 字符类别
+     */
+    private final int[] transitions;
+    /**
+     * 到达该状态时命中的关键字下标（-1 表示未命中）
+     */
+    private final int[] outputs;
+
+    public KeywordMatcher(String... keywords) {
+        TreeSet<Character> chars = new TreeSet<>();
+        for (String keyword : keywords) {
+            for (char c : keyword.toCharArray()) {
+                chars.add(c);
+            }
+        }
+        this.alphabet = new char[chars.size()];
+        int index = 0;
+        for (Character c : chars) {
+            alphabet[index++] = c;
+        }
+        // 类别 0 表示关键字中未出现的字符
+        this.width = alphabet.length + 1;
+
+        // 构建 trie
+        List<int[]> gotoTable = new ArrayList<>();
+        List<Integer> outputList = new ArrayList<>();
+        gotoTable.add(newRow());
+        outputList.add(-1);
+        for (int k = 0; k < keywords.length; k++) {
+            int state = 0;
+            for (char c : keywords[k].toCharArray()) {
+                int cls = classOf(c);
+                if (gotoTable.get(state)[cls] == 0) {
+                    gotoTable.get(state)[cls] = gotoTable.size();
+                    gotoTable.add(newRow());
+                    outputList.add(-1);
+                }
+                state = gotoTable.get(state)[cls];
+            }
+            if (outputList.get(state) < 0) {
+                outputList.set(state, k);
+            }
+        }
+
+        // 按层次计算失配链接，同时展开为完整转移表
+        int states = gotoTable.size();
+        this.transitions = new int[states * width];
+        this.outputs = new int[states];
+        int[] fail = new int[states];
+        for (int s = 0; s < states; s++) {
+            outputs[s] = outputList.get(s);
+        }
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int cls = 0; cls < width; cls++) {
+            int next = gotoTable.get(0)[cls];
+            transitions[cls] = next;
+            if (next != 0) {
+                queue.add(next);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            if (outputs[state] < 0) {
+                outputs[state] = outputs[fail[state]];
+            }
+            for (int cls = 0; cls < width; cls++) {
+                int next = gotoTable.get(state)[cls];
+                if (next != 0) {
+                    fail[next] = transitions[fail[state] * width + cls];
+                    transitions[state * width + cls] = next;
+                    queue.add(next);
+                } else {
+                    transitions[state * width + cls] = transitions[fail[state] * width + cls];
+                }
+            }
+        }
+    }
+
+    /**
+     * 查找文本中首个命中的关键字
+     *
+     * @return 关键字下标，未命中返回 -1
+     */
+    public int find(CharSequence text) {
+        if (text == null) {
+            return -1;
+        }
+        int state = 0;
+        for (int i = 0, length = text.length(); i < length; i++) {
+            state = transitions[state * width + classOf(text.charAt(i))];
+            if (outputs[state] >= 0) {
+                return outputs[state];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 文本是否包含任一关键字
+     */
+    public boolean matches(CharSequence text) {
+        return find(text) >= 0;
+    }
+
+    private int[] newRow() {
+        return new int[width];
+    }
+
+    private int classOf(char c) {
+        int index = Arrays.binarySearch(alphabet, c);
+        return index >= 0 ? index + 1 : 0;
+    }
+}
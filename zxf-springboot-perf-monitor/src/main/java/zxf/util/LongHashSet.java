@@ -0,0 +1,88 @@
+package zxf.util;
+
+import java.util.Arrays;
+
+/**
+ * 基本类型 long 集合 - 开放寻址（线性探测），避免 Long 装箱；0 作为空槽标记，不可存入
+ */
+public class LongHashSet {
+    private long[] table;
+    private int size;
+
+    public LongHashSet(int expectedSize) {
+        this.table = new long[tableSizeFor(expectedSize)];
+    }
+
+    /**
+     * 添加元素
+     *
+     * @return true 新增，false 已存在
+     */
+    public boolean add(long value) {
+        if (value == 0) {
+            throw new IllegalArgumentException("0 is reserved");
+        }
+        if ((size + 1) * 2 > table.length) {
+            resize();
+        }
+        int mask = table.length - 1;
+        int index = mix(value) & mask;
+        while (table[index] != 0) {
+            if (table[index] == value) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+        table[index] = value;
+        size++;
+        return true;
+    }
+
+    public boolean contains(long value) {
+        if (value == 0) {
+            return false;
+        }
+        int mask = table.length - 1;
+        int index = mix(value) & mask;
+        while (table[index] != 0) {
+            if (table[index] == value) {
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 清空（保留已分配的表，便于周期性复用）
+     */
+    public void clear() {
+        Arrays.fill(table, 0);
+        size = 0;
+    }
+
+    private void resize() {
+        long[] old = table;
+        table = new long[old.length * 2];
+        size = 0;
+        for (long value : old) {
+            if (value != 0) {
+                add(value);
+            }
+        }
+    }
+
+    private static int mix(long value) {
+        long h = value * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2) - 1) << 1;
+        return Math.max(16, capacity);
+    }
+}
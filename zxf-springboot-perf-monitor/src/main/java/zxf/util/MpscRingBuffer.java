@@ -0,0 +1,99 @@
+package zxf.util;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 有界多生产者单消费者环形缓冲（按槽位序号协调，生产者只做一次 CAS，满时直接丢弃并计数，从不阻塞）
+ *
+ * @author davis
+ */
+public final class MpscRingBuffer<E> {
+    private final Object[] elements;
+    /**
+     * 槽位序号：等于 pos 表示可写，等于 pos + 1 表示已写入待消费
+     */
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+    /**
+     * 仅由消费者线程读写
+     */
+    private long head;
+
+    /**
+     * @param capacity 容量，向上取整为 2 的幂
+     */
+    public MpscRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.elements = new Object[size];
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * 放入元素（任意线程）
+     *
+     * @return false 缓冲已满，元素被丢弃
+     */
+    public boolean offer(E element) {
+        long pos = tail.get();
+        while (true) {
+            int index = (int) pos & mask;
+            long diff = sequences.getAcquire(index) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    elements[index] = element;
+                    sequences.setRelease(index, pos + 1);
+                    return true;
+                }
+                pos = tail.get();
+            } else if (diff < 0) {
+                // 该槽位上一圈的元素尚未被消费：缓冲已满
+                dropped.increment();
+                return false;
+            } else {
+                pos = tail.get();
+            }
+        }
+    }
+
+    /**
+     * 取出最多 maxElements 个元素追加到 sink（仅限单一消费者线程调用）
+     *
+     * @return 取出数量
+     */
+    @SuppressWarnings("unchecked")
+    public int drainTo(List<? super E> sink, int maxElements) {
+        int count = 0;
+        while (count < maxElements) {
+            int index = (int) head & mask;
+            if (sequences.getAcquire(index) != head + 1) {
+                break;
+            }
+            sink.add((E) elements[index]);
+            elements[index] = null;
+            sequences.setRelease(index, head + elements.length);
+            head++;
+            count++;
+        }
+        return count;
+    }
+
+    public int capacity() {
+        return elements.length;
+    }
+
+    /**
+     * 因缓冲已满被丢弃的元素总数
+     */
+    public long droppedCount() {
+        return dropped.sum();
+    }
+}
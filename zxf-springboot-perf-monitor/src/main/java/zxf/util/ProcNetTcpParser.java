@@ -0,0 +1,182 @@
+package zxf.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * /proc/net/tcp 与 /proc/net/tcp6 解析 - 文件内容读入可复用的堆缓冲区（一次内核到用户态拷贝，并非零拷贝），
+ * 之后在该缓冲区上按字节原地解析，不生成行字符串
+ * <pre>
+ *   sl  local_address rem_address   st tx_queue rx_queue tr tm->when retrnsmt   uid  timeout inode
+ *    0: 0100007F:1F90 0100007F:C4A2 01 00000000:00000000 00:00000000 00000000  1000        0 123456 ...
+ * </pre>
+ * 地址以内核字节序的十六进制给出：IPv4 为 1 个 32 位字，IPv6 为 4 个 32 位字。
+ */
+public class ProcNetTcpParser {
+    public static final Path TCP = Path.of("/proc/net/tcp");
+    public static final Path TCP6 = Path.of("/proc/net/tcp6");
+
+    /**
+     * 每个连接回调一次；IPv4 地址放在 addressLow 的低 32 位
+     */
+    @FunctionalInterface
+    public interface Visitor {
+        void onSocket(boolean ipv6, long addressHigh, long addressLow, int remotePort, int localPort, int state, long inode);
+    }
+
+    private ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+
+    /**
+     * 解析一个 /proc/net/tcp* 文件，文件不存在（非 Linux）时不回调
+     */
+    public void parse(Path file, boolean ipv6, Visitor visitor) throws IOException {
+        if (!file.toFile().exists()) {
+            return;
+        }
+        int length = read(file);
+        byte[] data = buffer.array();
+        // 跳过表头行
+        int pos = nextLine(data, 0, length);
+        while (pos < length) {
+            int lineEnd = nextLine(data, pos, length);
+            parseLine(data, pos, lineEnd, ipv6, visitor);
+            pos = lineEnd;
+        }
+    }
+
+    /**
+     * 读取整个文件（/proc 文件大小恒为 0，只能读到 EOF）；缓冲区不足时翻倍并保留供下次使用
+     */
+    private int read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer.clear();
+            while (channel.read(buffer) >= 0) {
+                if (!buffer.hasRemaining()) {
+                    ByteBuffer larger = ByteBuffer.allocate(buffer.capacity() * 2);
+                    buffer.flip();
+                    larger.put(buffer);
+                    buffer = larger;
+                }
+            }
+            return buffer.position();
+        }
+    }
+
+    private void parseLine(byte[] data, int pos, int end, boolean ipv6, Visitor visitor) {
+        // sl
+        pos = skipToken(data, skipSpaces(data, pos, end), end);
+        // local_address: 只取端口
+        pos = skipSpaces(data, pos, end);
+        int localColon = indexOf(data, pos, end, (byte) ':');
+        if (localColon < 0) {
+            return;
+        }
+        int localPort = (int) parseHex(data, localColon + 1, localColon + 5);
+        pos = localColon + 5;
+        // rem_address
+        pos = skipSpaces(data, pos, end);
+        long high = 0;
+        long low;
+        if (ipv6) {
+            high = (wordToNetworkOrder(parseHex(data, pos, pos + 8)) << 32) | wordToNetworkOrder(parseHex(data, pos + 8, pos + 16));
+            low = (wordToNetworkOrder(parseHex(data, pos + 16, pos + 24)) << 32) | wordToNetworkOrder(parseHex(data, pos + 24, pos + 32));
+            pos += 32;
+        } else {
+            low = wordToNetworkOrder(parseHex(data, pos, pos + 8));
+            pos += 8;
+        }
+        if (pos >= end || data[pos] != ':') {
+            return;
+        }
+        int remotePort = (int) parseHex(data, pos + 1, pos + 5);
+        pos += 5;
+        // st
+        pos = skipSpaces(data, pos, end);
+        int state = (int) parseHex(data, pos, pos + 2);
+        pos += 2;
+        // tx_queue:rx_queue, tr:tm->when, retrnsmt, uid, timeout
+        for (int i = 0; i < 5; i++) {
+            pos = skipToken(data, skipSpaces(data, pos, end), end);
+        }
+        // inode（十进制）
+        pos = skipSpaces(data, pos, end);
+        long inode = 0;
+        while (pos < end && data[pos] >= '0' && data[pos] <= '9') {
+            inode = inode * 10 + (data[pos++] - '0');
+        }
+        visitor.onSocket(ipv6, high, low, remotePort, localPort, state, inode);
+    }
+
+    /**
+     * 格式化地址（仅用于输出）
+     */
+    public static String formatAddress(boolean ipv6, long high, long low) {
+        if (!ipv6) {
+            return ((low >>> 24) & 0xFF) + "." + ((low >>> 16) & 0xFF) + "." + ((low >>> 8) & 0xFF) + "." + (low & 0xFF);
+        }
+        // IPv4 映射地址 ::ffff:a.b.c.d 按 IPv4 输出
+        if (high == 0 && (low >>> 32) == 0xFFFFL) {
+            return formatAddress(false, 0, low & 0xFFFFFFFFL);
+        }
+        StringBuilder result = new StringBuilder(39);
+        for (int i = 0; i < 8; i++) {
+            long word = i < 4 ? high : low;
+            int shift = 48 - (i % 4) * 16;
+            if (i > 0) {
+                result.append(':');
+            }
+            result.append(Long.toHexString((word >>> shift) & 0xFFFF));
+        }
+        return result.toString();
+    }
+
+    /**
+     * /proc 中每个 32 位字按主机字节序（小端）打印，转为网络字节序
+     */
+    private static long wordToNetworkOrder(long word) {
+        return Integer.reverseBytes((int) word) & 0xFFFFFFFFL;
+    }
+
+    private static long parseHex(byte[] data, int from, int to) {
+        long value = 0;
+        for (int i = from; i < to && i < data.length; i++) {
+            byte b = data[i];
+            int digit = b <= '9' ? b - '0' : (b | 0x20) - 'a' + 10;
+            value = (value << 4) | digit;
+        }
+        return value;
+    }
+
+    private static int skipSpaces(byte[] data, int pos, int end) {
+        while (pos < end && data[pos] == ' ') {
+            pos++;
+        }
+        return pos;
+    }
+
+    private static int skipToken(byte[] data, int pos, int end) {
+        while (pos < end && data[pos] != ' ') {
+            pos++;
+        }
+        return pos;
+    }
+
+    private static int indexOf(byte[] data, int pos, int end, byte target) {
+        for (int i = pos; i < end; i++) {
+            if (data[i] == target) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int nextLine(byte[] data, int pos, int end) {
+        while (pos < end && data[pos] != '\n') {
+            pos++;
+        }
+        return Math.min(pos + 1, end);
+    }
+}
@@ -0,0 +1,82 @@
+package zxf.monitor;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import zxf.monitor.object.MonitorListener;
+import zxf.monitor.object.ObjectMonitor;
+import zxf.monitor.object.StackCaptureMode;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 超出跟踪上限后每个注册都有去向：累计注册 = 活跃 + 回收 + 未跟踪 + 当前蓄水池样本
+ */
+class OverflowAccountingTest {
+    private static final int MAX_TRACKED = 100;
+    private static final int SAMPLE_SIZE = 16;
+    private static final int REGISTRATIONS = 1000;
+
+    private final ObjectMonitor<Closeable> monitor = new ObjectMonitor<>(Closeable.class);
+
+    @AfterEach
+    void shutdown() {
+        monitor.shutdown();
+    }
+
+    @Test
+    void everyOverflowRegistrationIsAccountedFor() throws InterruptedException {
+        monitor.startup(config -> {
+            config.setStackCaptureMode(StackCaptureMode.NONE);
+            config.setMaxTrackedObjects(MAX_TRACKED);
+            config.setOverflowSampleSize(SAMPLE_SIZE);
+            config.setEventDispatchInterval(Duration.ofHours(1));
+        }, new MonitorListener<>() {
+        });
+
+        List<Closeable> objects = new ArrayList<>();
+        for (int i = 0; i < REGISTRATIONS; i++) {
+            Closeable object = new Resource();
+            objects.add(object);
+            monitor.register(object, null);
+        }
+
+        assertEquals(REGISTRATIONS, monitor.getTotalCreated());
+        assertEquals(MAX_TRACKED, monitor.getActiveCount());
+        assertEquals(SAMPLE_SIZE, monitor.getOverflowSamples().size());
+        // 未抽中的与被替换出的样本
+        assertEquals(REGISTRATIONS - MAX_TRACKED - SAMPLE_SIZE, monitor.getUntrackedCount());
+        assertBalanced();
+
+        objects.clear();
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while ((monitor.getActiveCount() > 0 || !monitor.getOverflowSamples().isEmpty()) && System.nanoTime() < deadline) {
+            System.gc();
+            Thread.sleep(50);
+        }
+
+        assertEquals(0, monitor.getActiveCount());
+        assertEquals(List.of(), monitor.getOverflowSamples());
+        assertEquals(MAX_TRACKED + SAMPLE_SIZE, monitor.getTotalCollected(), "collected overflow samples are counted");
+        assertBalanced();
+    }
+
+    private void assertBalanced() {
+        assertEquals(monitor.getTotalCreated(), monitor.getActiveCount() + monitor.getTotalCollected()
+                + monitor.getUntrackedCount() + monitor.getOverflowSamples().size());
+    }
+
+    /**
+     * 每次新建独立实例（不捕获变量的 lambda 是单例，永远不会被回收）
+     */
+    static final class Resource implements Closeable {
+        @Override
+        public void close() {
+        }
+    }
+}
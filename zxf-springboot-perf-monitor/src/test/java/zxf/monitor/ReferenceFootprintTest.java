@@ -0,0 +1,72 @@
+package zxf.monitor;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import zxf.monitor.object.MonitorListener;
+import zxf.monitor.object.ObjectMonitor;
+import zxf.monitor.object.StackCaptureMode;
+
+import java.io.Closeable;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 跟踪 10 万个存活对象时监控器的保留堆（TReference 80 字节 + 注册表/分代索引的条目，约 190 字节/对象），
+ * 按 GC 后的堆增量估算，上界留出余量以容忍 GC 统计误差
+ */
+class ReferenceFootprintTest {
+    private static final int COUNT = 100_000;
+    private static final long MAX_BYTES_PER_REFERENCE = 256;
+
+    @ParameterizedTest
+    @EnumSource(StackCaptureMode.class)
+    void retainedSizePerTrackedReferenceIsBounded(StackCaptureMode mode) throws InterruptedException {
+        Closeable[] objects = new Closeable[COUNT];
+        for (int i = 0; i < COUNT; i++) {
+            objects[i] = new Resource();
+        }
+
+        long before = usedHeapAfterGc();
+        ObjectMonitor<Closeable> monitor = new ObjectMonitor<>(Closeable.class);
+        try {
+            monitor.startup(config -> {
+                config.setStackCaptureMode(mode);
+                config.setMaxTrackedObjects(0);
+                config.setEventDispatchInterval(Duration.ofHours(1));
+            }, new MonitorListener<>() {
+            });
+            for (Closeable object : objects) {
+                monitor.register(object, null);
+            }
+            long retained = usedHeapAfterGc() - before;
+
+            assertEquals(COUNT, monitor.getActiveCount());
+            assertTrue(retained / COUNT <= MAX_BYTES_PER_REFERENCE,
+                    String.format("%s retained %,d bytes (%d bytes/reference)", mode, retained, retained / COUNT));
+        } finally {
+            monitor.shutdown();
+            Reference.reachabilityFence(objects);
+        }
+    }
+
+    private static long usedHeapAfterGc() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    /**
+     * 每次新建独立实例（不捕获变量的 lambda 是单例）
+     */
+    static final class Resource implements Closeable {
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package zxf.monitor;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import zxf.monitor.object.*;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SAMPLED 模式下只有抽中的注册采集堆栈，按位置的泄漏数由抽中样本乘以抽样率估算（测试类不能位于 zxf.monitor.object，其帧会被当作监控器自身跳过）
+ */
+class SampledSiteAttributionTest {
+    private static final int PER_SITE = 20_000;
+    private static final int SAMPLE_RATE = 10;
+
+    private final ObjectMonitor<Closeable> monitor = new ObjectMonitor<>(Closeable.class);
+    private final List<Closeable> objects = new ArrayList<>();
+
+    @AfterEach
+    void shutdown() {
+        monitor.shutdown();
+    }
+
+    @Test
+    void unsampledRegistrationsSkipTheStackWalk() {
+        monitor.startup(config -> {
+            config.setStackCaptureMode(StackCaptureMode.SAMPLED);
+            config.setStackSampleRate(SAMPLE_RATE);
+            config.setSiteIgnoredPrefixes(List.of(Glue.class.getName()));
+            config.setEventDispatchInterval(Duration.ofHours(1));
+        }, new MonitorListener<>() {
+        });
+
+        int sampled = 0;
+        for (int i = 0; i < PER_SITE; i++) {
+            AllocationSite site = monitor.getAllocationSite(Factory.newClientA(monitor, objects).getSiteId());
+            if (site != AllocationSite.UNSAMPLED) {
+                assertEquals(Factory.class.getName() + ".newClientA", site.location().replaceAll("\\(.*", ""));
+                sampled++;
+            }
+        }
+        assertEquals(PER_SITE / SAMPLE_RATE, sampled, PER_SITE / SAMPLE_RATE / 5.0);
+    }
+
+    @Test
+    void leakCountsPerSiteAreEstimatedFromSamples() throws InterruptedException {
+        CompletableFuture<List<SiteLeakReport>> suspected = new CompletableFuture<>();
+        monitor.startup(config -> {
+            config.setStackCaptureMode(StackCaptureMode.SAMPLED);
+            config.setStackSampleRate(SAMPLE_RATE);
+            config.setSiteIgnoredPrefixes(List.of(Glue.class.getName()));
+            config.setCheckInterval(Duration.ofSeconds(1));
+            config.setMaxObjectAge(Duration.ofMillis(100));
+            config.setLeakSuspectThreshold(Integer.MAX_VALUE);
+            config.setEventDispatchInterval(Duration.ofHours(1));
+        }, new MonitorListener<>() {
+            @Override
+            public void onLeakSitesSuspected(List<SiteLeakReport> reports) {
+                suspected.complete(reports);
+            }
+        });
+
+        for (int i = 0; i < PER_SITE; i++) {
+            Factory.newClientA(monitor, objects);
+            Factory.newClientB(monitor, objects);
+        }
+
+        Map<String, Long> counts = new HashMap<>();
+        for (SiteLeakReport report : awaitReports(suspected)) {
+            assertTrue(report.estimated());
+            counts.put(report.site().location().replaceAll("\\(.*", ""), report.count());
+        }
+        assertEquals(2, counts.size(), "only sampled sites are reported: " + counts);
+        // 抽中数服从二项分布，标准差约 sqrt(PER_SITE / SAMPLE_RATE) * SAMPLE_RATE ≈ 450，取 20% 容差
+        assertEquals(PER_SITE, counts.get(Factory.class.getName() + ".newClientA"), PER_SITE / 5.0);
+        assertEquals(PER_SITE, counts.get(Factory.class.getName() + ".newClientB"), PER_SITE / 5.0);
+    }
+
+    private static List<SiteLeakReport> awaitReports(CompletableFuture<List<SiteLeakReport>> reports) throws InterruptedException {
+        try {
+            return reports.get(10, TimeUnit.SECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            return fail("no leak site report within 10s", e);
+        }
+    }
+
+    @Test
+    void sampledStackIsAttachedToTheSite() {
+        monitor.startup(config -> {
+            config.setStackCaptureMode(StackCaptureMode.SAMPLED);
+            config.setStackSampleRate(1);
+            config.setStackDepth(4);
+            config.setSiteIgnoredPrefixes(List.of(Glue.class.getName()));
+            config.setEventDispatchInterval(Duration.ofHours(1));
+        }, new MonitorListener<>() {
+        });
+
+        TReference<Closeable> ref = Factory.newClientA(monitor, objects);
+        AllocationSite site = monitor.getAllocationSite(ref.getSiteId());
+        assertTrue(site.stackTrace().size() > 1, "sampled registration keeps an example stack");
+        assertEquals("newClientA", site.stackTrace().get(0).getMethodName());
+    }
+
+    /**
+     * 模拟业务工厂方法（分配位置）
+     */
+    static class Factory {
+        static TReference<Closeable> newClientA(ObjectMonitor<Closeable> monitor, List<Closeable> objects) {
+            return Glue.monitor(monitor, objects);
+        }
+
+        static TReference<Closeable> newClientB(ObjectMonitor<Closeable> monitor, List<Closeable> objects) {
+            return Glue.monitor(monitor, objects);
+        }
+    }
+
+    /**
+     * 模拟监控接入层（如 HttpClientMonitor），由 siteIgnoredPrefixes 跳过
+     */
+    static class Glue {
+        static TReference<Closeable> monitor(ObjectMonitor<Closeable> monitor, List<Closeable> objects) {
+            Closeable object = () -> {
+            };
+            objects.add(object);
+            return monitor.register(object, null);
+        }
+    }
+}
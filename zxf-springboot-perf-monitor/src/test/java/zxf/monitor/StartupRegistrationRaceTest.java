@@ -0,0 +1,90 @@
+package zxf.monitor;
+
+import org.junit.jupiter.api.Test;
+
+import zxf.monitor.object.MonitorListener;
+import zxf.monitor.object.ObjectMonitor;
+import zxf.monitor.object.StackCaptureMode;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * startup 与多线程 register 并发：注册线程不能看到半初始化的监控器（空指针、绕过跟踪上限）
+ */
+class StartupRegistrationRaceTest {
+    private static final int ROUNDS = 50;
+    private static final int THREADS = 4;
+    private static final int REGISTRATIONS_AFTER_STARTUP = 2000;
+    private static final int MAX_TRACKED = 100;
+
+    @Test
+    void registerDuringStartupSeesFullyInitializedMonitor() throws InterruptedException {
+        for (int round = 0; round < ROUNDS; round++) {
+            runRound();
+        }
+    }
+
+    private void runRound() throws InterruptedException {
+        ObjectMonitor<Closeable> monitor = new ObjectMonitor<>(Closeable.class);
+        Queue<Throwable> errors = new ConcurrentLinkedQueue<>();
+        // 保持强引用，避免对象被回收后腾出跟踪名额
+        Queue<Closeable> objects = new ConcurrentLinkedQueue<>();
+        CountDownLatch registering = new CountDownLatch(THREADS);
+        CountDownLatch started = new CountDownLatch(1);
+
+        Thread[] threads = new Thread[THREADS];
+        for (int t = 0; t < THREADS; t++) {
+            threads[t] = new Thread(() -> {
+                try {
+                    registering.countDown();
+                    while (started.getCount() > 0) {
+                        register(monitor, objects);
+                    }
+                    for (int i = 0; i < REGISTRATIONS_AFTER_STARTUP; i++) {
+                        register(monitor, objects);
+                    }
+                } catch (Throwable e) {
+                    errors.add(e);
+                }
+            }, "register-" + t);
+            threads[t].start();
+        }
+
+        registering.await();
+        try {
+            monitor.startup(config -> {
+                config.setStackCaptureMode(StackCaptureMode.NONE);
+                config.setMaxTrackedObjects(MAX_TRACKED);
+                config.setOverflowSampleSize(16);
+                config.setEventDispatchInterval(Duration.ofHours(1));
+            }, new MonitorListener<>() {
+            });
+            started.countDown();
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        } finally {
+            started.countDown();
+            monitor.shutdown();
+        }
+
+        assertEquals(List.of(), List.copyOf(errors));
+        assertEquals(MAX_TRACKED, monitor.getActiveCount(), "tracking cap must hold for registrations racing startup");
+        assertTrue(monitor.getUntrackedCount() > 0);
+    }
+
+    private static void register(ObjectMonitor<Closeable> monitor, Queue<Closeable> objects) {
+        Closeable object = () -> {
+        };
+        if (monitor.register(object, null) != null) {
+            objects.add(object);
+        }
+    }
+}
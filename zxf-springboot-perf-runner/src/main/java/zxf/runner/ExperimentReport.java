@@ -0,0 +1,50 @@
+package zxf.runner;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 实验报告：每个策略 × 并发级别一行，增长量为压测后减压测前（均已 GC 并等待监控器刷新），括号内为期间峰值增长
+ */
+public final class ExperimentReport {
+    private static final String CSV_HEADER = "strategy,virtual_threads,concurrency,requests,errors,throughput,p99_ms,"
+            + "fd_before,fd_after,fd_peak,client_threads_before,client_threads_after,client_threads_peak,"
+            + "jvm_threads_before,jvm_threads_after,heap_before,heap_after,tracked_active_before,tracked_active_after,"
+            + "tracked_created,pinned";
+
+    private ExperimentReport() {
+    }
+
+    public static String toMarkdown(List<ExperimentResult> results) {
+        StringBuilder out = new StringBuilder();
+        out.append("# 泄漏 vs 吞吐 实验报告\n\n");
+        out.append("| 策略 | 线程模式 | 并发 | req/s | p99 (ms) | 错误 | fd 增长 (峰值) | httpclient 线程增长 (峰值) "
+                + "| JVM 线程增长 | 堆增长 (MB) | 未回收 Closeable 增长 | 载体线程固定 |\n");
+        out.append("|---|---|---:|---:|---:|---:|---:|---:|---:|---:|---:|---:|\n");
+        for (ExperimentResult r : results) {
+            out.append(String.format(Locale.ROOT, "| `%s` | %s | %d | %.1f | %.2f | %d | %+d (%+d) | %+d (%+d) | %+d | %+.1f | %+d | %s |%n",
+                    r.strategy(), r.virtualThreads() ? "虚拟" : "平台", r.concurrency(), r.load().throughput(), r.load().corrected().p99(), r.load().errors(),
+                    r.fdGrowth(), r.peakFdGrowth(), r.clientThreadGrowth(), r.peakClientThreadGrowth(),
+                    r.jvmThreadGrowth(), r.heapGrowth() / (1024.0 * 1024.0), r.trackedGrowth(),
+                    r.pinnedGrowth() < 0 ? "-" : String.valueOf(r.pinnedGrowth())));
+        }
+        out.append("\n- mock、http5 与压测端在同一进程内运行，JVM 线程数与堆包含三者；fd 与 httpclient 线程来自 http5 的监控器\n");
+        out.append("- 每个策略使用新启动的 http5 上下文，同一策略内各并发级别依次累积\n");
+        return out.toString();
+    }
+
+    public static String toCsv(List<ExperimentResult> results) {
+        StringBuilder out = new StringBuilder(CSV_HEADER).append('\n');
+        for (ExperimentResult r : results) {
+            ResourceSample before = r.before();
+            ResourceSample after = r.after();
+            out.append(String.format(Locale.ROOT, "%s,%b,%d,%d,%d,%.1f,%.3f,%d,%d,%d,%d,%d,%d,%d,%d,%d,%d,%d,%d,%d,%d%n",
+                    r.strategy(), r.virtualThreads(), r.concurrency(), r.load().requests(), r.load().errors(), r.load().throughput(),
+                    r.load().corrected().p99(), before.openFds(), after.openFds(), r.peak().openFds(),
+                    before.clientThreads(), after.clientThreads(), r.peak().clientThreads(), before.jvmThreads(),
+                    after.jvmThreads(), before.heapUsed(), after.heapUsed(), before.trackedActive(),
+                    after.trackedActive(), after.trackedCreated() - before.trackedCreated(), r.pinnedGrowth()));
+        }
+        return out.toString();
+    }
+}
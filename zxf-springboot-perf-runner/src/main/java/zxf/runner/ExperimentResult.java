@@ -0,0 +1,52 @@
+package zxf.runner;
+
+import zxf.loadgen.LoadResult;
+
+/**
+ * 单个策略在单个并发级别下的结果
+ *
+ * @param strategy    策略（被压测的 http5 端点）
+ * @param virtualThreads mock 与 http5 是否运行在虚拟线程模式
+ * @param concurrency 闭环并发数
+ * @param load        吞吐与延迟
+ * @param before      压测前采样（已 GC 并等待监控器刷新）
+ * @param after       压测后采样（同上）
+ * @param peak        压测期间逐项峰值
+ */
+public record ExperimentResult(String strategy, boolean virtualThreads, int concurrency, LoadResult load, ResourceSample before,
+                               ResourceSample after, ResourceSample peak) {
+    public long fdGrowth() {
+        return after.openFds() - before.openFds();
+    }
+
+    /**
+     * 期间峰值相对压测前的增长（进程内上一策略遗留的资源可能在期间被回收，故不直接比较绝对峰值）
+     */
+    public long peakFdGrowth() {
+        return peak.openFds() - before.openFds();
+    }
+
+    public int peakClientThreadGrowth() {
+        return peak.clientThreads() - before.clientThreads();
+    }
+
+    public int clientThreadGrowth() {
+        return after.clientThreads() - before.clientThreads();
+    }
+
+    public int jvmThreadGrowth() {
+        return after.jvmThreads() - before.jvmThreads();
+    }
+
+    public long heapGrowth() {
+        return after.heapUsed() - before.heapUsed();
+    }
+
+    public long pinnedGrowth() {
+        return after.pinned() < 0 ? -1 : after.pinned() - before.pinned();
+    }
+
+    public long trackedGrowth() {
+        return after.trackedActive() - before.trackedActive();
+    }
+}
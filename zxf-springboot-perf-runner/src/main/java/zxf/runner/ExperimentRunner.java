@@ -0,0 +1,170 @@
+package zxf.runner;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import zxf.loadgen.LoadConfig;
+import zxf.loadgen.LoadGenerator;
+import zxf.loadgen.LoadMode;
+import zxf.loadgen.LoadResult;
+import zxf.mock.MockApplication;
+import zxf.perf.PerfApplication;
+
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 泄漏 vs 吞吐 实验运行器：进程内以随机端口启动 mock 与 http5 应用，对每个客户端策略（端点）按并发级别
+ * 依次闭环压测，前后及期间采样 http5 的 DescriptorMonitor/ThreadMonitor/ObjectMonitor，输出一份汇总报告；
+ * 可按平台线程/虚拟线程两种模式各跑一遍对比
+ * <pre>
+ * java -jar zxf-springboot-perf-runner/target/runner.jar --concurrency=1,10,50 --duration=20s --out=report.md
+ * java -jar zxf-springboot-perf-runner/target/runner.jar --endpoints=/template/shared/pool?delay=5 --concurrency=200,1000,4000 --virtual-threads=false,true
+ * </pre>
+ * 选项：--endpoints=/template/new/default,... --warmup=5s --timeout=30s --sample-interval=1s --out=report.csv
+ */
+@Slf4j
+public class ExperimentRunner {
+    private static final String APPLICATION = "http5";
+    private static final List<String> DEFAULT_ENDPOINTS = List.of(
+            "/template/new/default", "/template/new/custom/pool", "/httpclient/new/default?close=false",
+            "/template/shared/pool");
+
+    private final List<String> endpoints;
+    private final List<Integer> concurrencyLevels;
+    private final Duration duration;
+    private final Duration warmup;
+    private final Duration timeout;
+    private final Duration sampleInterval;
+    private final List<Boolean> threadModes;
+
+    /**
+     * @param threadModes 依次运行的线程模式，true 为虚拟线程（mock 与 http5 的 spring.threads.virtual.enabled）
+     */
+    public ExperimentRunner(List<String> endpoints, List<Integer> concurrencyLevels, Duration duration, Duration warmup,
+                            Duration timeout, Duration sampleInterval, List<Boolean> threadModes) {
+        this.endpoints = endpoints;
+        this.concurrencyLevels = concurrencyLevels;
+        this.duration = duration;
+        this.warmup = warmup;
+        this.timeout = timeout;
+        this.sampleInterval = sampleInterval;
+        this.threadModes = threadModes;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException("Unexpected argument: " + arg);
+            }
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        ExperimentRunner runner = new ExperimentRunner(
+                options.containsKey("endpoints") ? List.of(options.get("endpoints").split(",")) : DEFAULT_ENDPOINTS,
+                Arrays.stream(options.getOrDefault("concurrency", "1,10,50").split(",")).map(Integer::valueOf).toList(),
+                LoadConfig.parseDuration(options.getOrDefault("duration", "20s")),
+                LoadConfig.parseDuration(options.getOrDefault("warmup", "5s")),
+                LoadConfig.parseDuration(options.getOrDefault("timeout", "30s")),
+                LoadConfig.parseDuration(options.getOrDefault("sample-interval", "1s")),
+                Arrays.stream(options.getOrDefault("virtual-threads", "false").split(",")).map(Boolean::valueOf).toList());
+
+        List<ExperimentResult> results = runner.run();
+
+        Path out = Path.of(options.getOrDefault("out", "experiment-report.md"));
+        Files.writeString(out, out.toString().endsWith(".csv")
+                ? ExperimentReport.toCsv(results) : ExperimentReport.toMarkdown(results));
+        log.info("实验报告已写入 {}", out.toAbsolutePath());
+    }
+
+    public List<ExperimentResult> run() throws InterruptedException {
+        List<ExperimentResult> results = new ArrayList<>();
+        for (boolean virtualThreads : threadModes) {
+            String threadMode = "spring.threads.virtual.enabled=" + virtualThreads;
+            try (ConfigurableApplicationContext mock = start(MockApplication.class, MockApplication.CONFIG_NAME, threadMode)) {
+                String mockUrl = "http://localhost:" + port(mock);
+                log.info("mock 已启动: {} (虚拟线程: {})", mockUrl, virtualThreads);
+                for (String endpoint : endpoints) {
+                    // 每个策略使用全新的 http5 上下文，避免上一策略泄漏的连接/线程干扰基线
+                    try (ConfigurableApplicationContext app = start(PerfApplication.class, PerfApplication.CONFIG_NAME, threadMode,
+                            "perf.mock.url=" + mockUrl,
+                            "perf.monitor.sample-interval=" + sampleInterval.toMillis() + "ms")) {
+                        URI uri = URI.create("http://localhost:" + port(app) + endpoint);
+                        for (int concurrency : concurrencyLevels) {
+                            results.add(runOne(endpoint, virtualThreads, uri, concurrency));
+                        }
+                    }
+                }
+            }
+        }
+        return results;
+    }
+
+    private ExperimentResult runOne(String strategy, boolean virtualThreads, URI uri, int concurrency)
+            throws InterruptedException {
+        ResourceSample before = settledSample();
+        AtomicReference<ResourceSample> peak = new AtomicReference<>(before);
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "ExperimentSampler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        LoadResult load;
+        try {
+            sampler.scheduleAtFixedRate(() -> peak.accumulateAndGet(ResourceSample.capture(APPLICATION), ResourceSample::max),
+                    sampleInterval.toMillis(), sampleInterval.toMillis(), TimeUnit.MILLISECONDS);
+            load = new LoadGenerator(LoadConfig.builder()
+                    .uri(uri)
+                    .mode(LoadMode.CLOSED)
+                    .concurrency(concurrency)
+                    .duration(duration)
+                    .warmup(warmup)
+                    .timeout(timeout)
+                    .build()).run();
+        } finally {
+            sampler.shutdownNow();
+        }
+        ResourceSample after = settledSample();
+        ExperimentResult result = new ExperimentResult(strategy, virtualThreads, concurrency, load, before, after,
+                peak.get());
+        log.info("{} {} c={}: {} req/s, p99 {}ms, fd {}, httpclient 线程 {}, 堆 {} bytes, 未回收 Closeable {}",
+                strategy, virtualThreads ? "虚拟线程" : "平台线程", concurrency, String.format(Locale.ROOT, "%.1f", load.throughput()),
+                String.format(Locale.ROOT, "%.2f", load.corrected().p99()), result.fdGrowth(),
+                result.clientThreadGrowth(), result.heapGrowth(), result.trackedGrowth());
+        return result;
+    }
+
+    /**
+     * GC 后等待两个采样间隔，确保 ThreadMonitor/DescriptorMonitor 的缓存值已刷新
+     */
+    private ResourceSample settledSample() throws InterruptedException {
+        System.gc();
+        Thread.sleep(sampleInterval.toMillis() * 2 + 200);
+        return ResourceSample.capture(APPLICATION);
+    }
+
+    /**
+     * 两个应用同在类路径：按各自的 spring.config.name（mock.yml / http5.yml）加载配置，与单独启动时一致；
+     * 实验相关的覆盖以命令行参数传入
+     */
+    private static ConfigurableApplicationContext start(Class<?> application, String configName, String... properties) {
+        List<String> args = new ArrayList<>(List.of("--spring.config.name=" + configName, "--server.port=0",
+                "--spring.main.banner-mode=off"));
+        for (String property : properties) {
+            args.add("--" + property);
+        }
+        return new SpringApplicationBuilder(application).main(application).run(args.toArray(String[]::new));
+    }
+
+    private static int port(ConfigurableApplicationContext context) {
+        return context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+    }
+}
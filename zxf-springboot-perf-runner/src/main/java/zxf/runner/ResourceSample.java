@@ -0,0 +1,61 @@
+package zxf.runner;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+/**
+ * 一次资源采样：描述符/线程取自 http5 应用导出的 DescriptorMonitor/ThreadMonitor MXBean，
+ * 跟踪对象取自 ObjectMonitor MXBean，堆与 JVM 线程数取自平台 MXBean（进程内运行，包含 mock 与压测端）
+ *
+ * @param openFds        打开的文件描述符数
+ * @param clientThreads  匹配 httpclient 关键字的线程数
+ * @param jvmThreads     JVM 存活线程总数
+ * @param heapUsed       堆已用字节（采样前已 GC 时近似存活对象大小）
+ * @param trackedActive  ObjectMonitor 当前活跃（未回收）的 Closeable 数
+ * @param trackedCreated ObjectMonitor 累计注册的 Closeable 数
+ * @param pinned         PinningMonitor 累计的虚拟线程固定次数（平台线程模式下为 -1）
+ */
+public record ResourceSample(long openFds, int clientThreads, int jvmThreads, long heapUsed, long trackedActive,
+                             long trackedCreated, long pinned) {
+    private static final String DOMAIN = "zxf.monitor";
+
+    /**
+     * 读取指定应用的监控 MXBean；对应 MBean 不存在（如非 Linux 无描述符统计）时记为 -1
+     */
+    public static ResourceSample capture(String application) {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        return new ResourceSample(
+                attribute(server, application, "DescriptorMonitor", "descriptors", "OpenCount"),
+                (int) attribute(server, application, "ThreadMonitor", "threads", "MatchedCount"),
+                ManagementFactory.getThreadMXBean().getThreadCount(),
+                ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed(),
+                attribute(server, application, "ObjectMonitor", "java.io.Closeable", "ActiveCount"),
+                attribute(server, application, "ObjectMonitor", "java.io.Closeable", "TotalCreated"),
+                attribute(server, application, "PinningMonitor", "virtual-threads", "PinnedCount"));
+    }
+
+    /**
+     * 逐项取较大值，用于记录运行期间的峰值
+     */
+    public ResourceSample max(ResourceSample other) {
+        return new ResourceSample(Math.max(openFds, other.openFds), Math.max(clientThreads, other.clientThreads),
+                Math.max(jvmThreads, other.jvmThreads), Math.max(heapUsed, other.heapUsed),
+                Math.max(trackedActive, other.trackedActive), Math.max(trackedCreated, other.trackedCreated),
+                Math.max(pinned, other.pinned));
+    }
+
+    private static long attribute(MBeanServer server, String application, String type, String name, String attribute) {
+        try {
+            ObjectName objectName = new ObjectName(DOMAIN + ":application=" + ObjectName.quote(application)
+                    + ",type=" + type + ",name=" + ObjectName.quote(name));
+            if (!server.isRegistered(objectName)) {
+                return -1;
+            }
+            return ((Number) server.getAttribute(objectName, attribute)).longValue();
+        } catch (JMException e) {
+            return -1;
+        }
+    }
+}